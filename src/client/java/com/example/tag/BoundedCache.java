@@ -0,0 +1,311 @@
+package com.example.tag;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Concurrent map with a total weight limit
+ * Reads are lock-free, including the access counting behind admission
+ * Writes evict with the CLOCK algorithm, an approximation of LRU
+ * A new entry only displaces an old one if it has been asked for at least as often (TinyLFU admission),
+ * so a burst of one-off lookups can't flush the players that are looked up all the time
+ * Hits and misses are counted by the caller's CacheMetrics, which knows which reads are real lookups
+ */
+public class BoundedCache<K, V> {
+    private final ConcurrentHashMap<K, Node<K, V>> map = new ConcurrentHashMap<>();
+    private final ToIntFunction<V> weigher;
+    private final long maxWeight;
+    private final FrequencySketch sketch;
+
+    // Entries in insertion order for the clock hand; removed entries are skipped lazily. Guarded by itself
+    private final ArrayDeque<Node<K, V>> clock = new ArrayDeque<>();
+    private long weightedSize = 0;
+
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    // Where the last sweep stopped; map iterators are weakly consistent, so it stays usable while entries change
+    private final Object sweepLock = new Object();
+    private Iterator<Node<K, V>> sweepCursor;
+
+    /**
+     * @param maxWeight Total weight the cache may hold
+     * @param weigher Weight of one value, at least 1; heavier values take more of the budget
+     */
+    public BoundedCache(long maxWeight, ToIntFunction<V> weigher) {
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.sketch = new FrequencySketch((int) Math.min(Integer.MAX_VALUE, maxWeight));
+    }
+
+    /**
+     * @return The cached value, or null if absent
+     */
+    public V get(K key) {
+        sketch.increment(key);
+        Node<K, V> node = map.get(key);
+        if (node == null) {
+            return null;
+        }
+
+        // Second chance for the clock hand
+        node.referenced = true;
+        return node.value;
+    }
+
+    /**
+     * Get a value without counting it as an access
+     */
+    public V peek(K key) {
+        Node<K, V> node = map.get(key);
+        return node != null ? node.value : null;
+    }
+
+    /**
+     * Add or replace a value, evicting others if the cache is over its weight
+     * The value may not be kept if it is heavier than the whole cache or rarer than what it would displace
+     */
+    public void put(K key, V value) {
+        int weight = Math.max(1, weigher.applyAsInt(value));
+        if (weight > maxWeight) {
+            rejections.increment();
+            return;
+        }
+
+        Node<K, V> node = new Node<>(key, value, weight);
+        synchronized (clock) {
+            Node<K, V> previous = map.put(key, node);
+            if (previous != null) {
+                previous.removed = true;
+                weightedSize -= previous.weight;
+            }
+
+            clock.addLast(node);
+            weightedSize += weight;
+            evict(previous == null ? node : null);
+            compactIfNeeded();
+        }
+    }
+
+    /**
+     * Remove an entry
+     * @return The removed value, or null if absent
+     */
+    public V remove(K key) {
+        synchronized (clock) {
+            Node<K, V> node = map.remove(key);
+            if (node == null) {
+                return null;
+            }
+            unlink(node);
+            return node.value;
+        }
+    }
+
+    /**
+     * Remove an entry only if it still holds this value
+     */
+    public boolean remove(K key, V value) {
+        synchronized (clock) {
+            Node<K, V> node = map.get(key);
+            if (node == null || node.value != value) {
+                return false;
+            }
+            map.remove(key, node);
+            unlink(node);
+            return true;
+        }
+    }
+
+    /**
+     * Remove dead entries, examining at most maxScanned of them
+     * Each call resumes where the previous one stopped, so repeated calls cover the whole cache in small steps
+     * @param isDead Whether a value should be dropped, e.g. because it expired
+     * @return Number of entries removed
+     */
+    public int sweep(Predicate<V> isDead, int maxScanned) {
+        int removed = 0;
+        synchronized (sweepLock) {
+            boolean restarted = false;
+            for (int scanned = 0; scanned < maxScanned; scanned++) {
+                if (sweepCursor == null || !sweepCursor.hasNext()) {
+                    // Start over at most once per call, so a small cache isn't scanned again and again
+                    if (restarted) {
+                        break;
+                    }
+                    sweepCursor = map.values().iterator();
+                    restarted = true;
+                    if (!sweepCursor.hasNext()) {
+                        break;
+                    }
+                }
+
+                Node<K, V> node = sweepCursor.next();
+                if (isDead.test(node.value) && removeNode(node)) {
+                    expirations.increment();
+                    removed++;
+                }
+            }
+        }
+        return removed;
+    }
+
+    private boolean removeNode(Node<K, V> node) {
+        synchronized (clock) {
+            if (!map.remove(node.key, node)) {
+                return false;
+            }
+            unlink(node);
+            return true;
+        }
+    }
+
+    public void clear() {
+        synchronized (clock) {
+            map.clear();
+            clock.clear();
+            weightedSize = 0;
+        }
+        sketch.clear();
+    }
+
+    /**
+     * Get a snapshot of the cached values
+     * Safe to call while other threads are writing
+     */
+    public List<V> values() {
+        List<V> values = new ArrayList<>(map.size());
+        for (Node<K, V> node : map.values()) {
+            values.add(node.value);
+        }
+        return values;
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    public long getWeightedSize() {
+        synchronized (clock) {
+            return weightedSize;
+        }
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Get how many dead entries sweeps have removed
+     */
+    public long getExpiredCount() {
+        return expirations.sum();
+    }
+
+    /**
+     * Get how many new entries were not admitted because they were rarer than the entry they would have replaced
+     */
+    public long getRejectionCount() {
+        return rejections.sum();
+    }
+
+    /**
+     * Reset the eviction, rejection and sweep counters; the entries stay
+     */
+    public void resetCounts() {
+        evictions.reset();
+        rejections.reset();
+        expirations.reset();
+    }
+
+    /**
+     * Evict until the cache fits its weight again
+     * Must be called while holding the clock lock
+     * @param candidate The entry just inserted, which TinyLFU may reject instead of evicting an older one; null for updates
+     */
+    private void evict(Node<K, V> candidate) {
+        while (weightedSize > maxWeight) {
+            Node<K, V> victim = clock.pollFirst();
+            if (victim == null) {
+                return;
+            }
+            if (victim.removed) {
+                continue;
+            }
+            if (victim.referenced) {
+                // Recently read; move it to the back and clear the flag
+                victim.referenced = false;
+                clock.addLast(victim);
+                continue;
+            }
+            if (victim == candidate) {
+                // The hand reached the newcomer before a victim; it is judged against the entry it would replace instead
+                clock.addLast(victim);
+                continue;
+            }
+
+            if (candidate != null && !candidate.removed
+                    && sketch.frequency(candidate.key) < sketch.frequency(victim.key)) {
+                // The newcomer is rarer than the entry it would push out; keep the old one instead
+                clock.addFirst(victim);
+                map.remove(candidate.key, candidate);
+                unlink(candidate);
+                rejections.increment();
+                continue;
+            }
+
+            map.remove(victim.key, victim);
+            victim.removed = true;
+            weightedSize -= victim.weight;
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Mark a node removed and release its weight; it leaves the clock when the hand reaches it
+     * Must be called while holding the clock lock
+     */
+    private void unlink(Node<K, V> node) {
+        if (!node.removed) {
+            node.removed = true;
+            weightedSize -= node.weight;
+        }
+    }
+
+    /**
+     * Drop removed nodes from the clock once they outnumber the live ones, so it can't grow without bound
+     * Must be called while holding the clock lock
+     */
+    private void compactIfNeeded() {
+        if (clock.size() > 2 * map.size() + 16) {
+            clock.removeIf(node -> node.removed);
+        }
+    }
+
+    private static class Node<K, V> {
+        private final K key;
+        private final V value;
+        private final int weight;
+        private volatile boolean referenced = false;
+
+        // Guarded by the clock lock
+        private boolean removed = false;
+
+        private Node(K key, V value, int weight) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.tag;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for one cache region: lookups, expirations and how long loading a missing value takes
+ * Every counter is a LongAdder, so recording never locks and threads barely contend
+ * Size, weight and evictions are read from the region's BoundedCache
+ */
+public class CacheMetrics {
+    // Upper bounds of the load latency buckets in milliseconds; one more bucket takes everything slower
+    private static final long[] LATENCY_BOUNDS_MS = {50, 100, 250, 500, 1000, 2500, 5000};
+
+    private final String name;
+    private final BoundedCache<?, ?> cache;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+    private final LongAdder[] latencyBuckets = new LongAdder[LATENCY_BOUNDS_MS.length + 1];
+
+    public CacheMetrics(String name, BoundedCache<?, ?> cache) {
+        this.name = name;
+        this.cache = cache;
+        for (int i = 0; i < latencyBuckets.length; i++) {
+            latencyBuckets[i] = new LongAdder();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void recordHit() {
+        hits.increment();
+    }
+
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    /**
+     * Record a lookup that found an entry past its expiry; it also counts as a miss
+     */
+    public void recordExpiration() {
+        expirations.increment();
+        misses.increment();
+    }
+
+    /**
+     * Record a finished load of a missing value
+     * @param nanos How long the load took
+     * @param failed Whether it ended with an error
+     */
+    public void recordLoad(long nanos, boolean failed) {
+        loads.increment();
+        if (failed) {
+            loadFailures.increment();
+        }
+        loadNanos.add(nanos);
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        int bucket = 0;
+        while (bucket < LATENCY_BOUNDS_MS.length && millis > LATENCY_BOUNDS_MS[bucket]) {
+            bucket++;
+        }
+        latencyBuckets[bucket].increment();
+    }
+
+    /**
+     * Record the latency of a load once it completes; cancelled loads are not counted
+     * @return The same future, so this can wrap a loader inline
+     */
+    public <T> CompletableFuture<T> timeLoad(CompletableFuture<T> load) {
+        long start = System.nanoTime();
+        load.whenComplete((result, error) -> {
+            if (!(error instanceof CancellationException)) {
+                recordLoad(System.nanoTime() - start, error != null);
+            }
+        });
+        return load;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getExpirationCount() {
+        return expirations.sum();
+    }
+
+    public long getEvictionCount() {
+        return cache.getEvictionCount();
+    }
+
+    /**
+     * Get how many expired entries the background sweep removed before anyone read them again
+     */
+    public long getSweptCount() {
+        return cache.getExpiredCount();
+    }
+
+    public int getSize() {
+        return cache.size();
+    }
+
+    public long getWeightedSize() {
+        return cache.getWeightedSize();
+    }
+
+    public long getMaxWeight() {
+        return cache.getMaxWeight();
+    }
+
+    public long getLoadCount() {
+        return loads.sum();
+    }
+
+    public long getLoadFailureCount() {
+        return loadFailures.sum();
+    }
+
+    /**
+     * @return Share of lookups that were hits, from 0 to 1, or 0 before the first lookup
+     */
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total > 0 ? (double) hitCount / total : 0;
+    }
+
+    public long getAverageLoadMs() {
+        long count = loads.sum();
+        return count > 0 ? TimeUnit.NANOSECONDS.toMillis(loadNanos.sum() / count) : 0;
+    }
+
+    /**
+     * Estimate a load latency percentile from the histogram
+     * @param percentile e.g. 0.95
+     * @return Upper bound of the bucket the percentile falls in, Long.MAX_VALUE for the open-ended bucket, or 0 without loads
+     */
+    public long getLoadPercentileMs(double percentile) {
+        long[] counts = getLatencyHistogram();
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long target = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return i < LATENCY_BOUNDS_MS.length ? LATENCY_BOUNDS_MS[i] : Long.MAX_VALUE;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * @return Loads per latency bucket, matching getLatencyBoundsMs plus one final bucket for slower loads
+     */
+    public long[] getLatencyHistogram() {
+        long[] counts = new long[latencyBuckets.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = latencyBuckets[i].sum();
+        }
+        return counts;
+    }
+
+    public static long[] getLatencyBoundsMs() {
+        return LATENCY_BOUNDS_MS.clone();
+    }
+
+    /**
+     * Reset every counter, including the region cache's evictions and sweeps, e.g. after changing cache settings
+     */
+    public void reset() {
+        cache.resetCounts();
+        hits.reset();
+        misses.reset();
+        expirations.reset();
+        loads.reset();
+        loadFailures.reset();
+        loadNanos.reset();
+        for (LongAdder bucket : latencyBuckets) {
+            bucket.reset();
+        }
+    }
+}
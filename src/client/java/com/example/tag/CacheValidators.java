@@ -0,0 +1,53 @@
+package com.example.tag;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+/**
+ * HTTP validators (ETag / Last-Modified) stored next to a cached response
+ * Used to send conditional requests so unchanged data can be answered with a 304
+ */
+public final class CacheValidators {
+    private final String etag;
+    private final String lastModified;
+
+    public CacheValidators(String etag, String lastModified) {
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Read the validators from a response
+     * @return Validators, or null if the server sent neither header
+     */
+    public static CacheValidators from(HttpResponse<?> response) {
+        String etag = response.headers().firstValue("ETag").orElse(null);
+        String lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+
+        if (etag == null && lastModified == null) {
+            return null;
+        }
+        return new CacheValidators(etag, lastModified);
+    }
+
+    /**
+     * Make a request conditional on the cached copy still being current
+     */
+    public HttpRequest.Builder applyTo(HttpRequest.Builder builder) {
+        if (etag != null) {
+            builder.header("If-None-Match", etag);
+        }
+        if (lastModified != null) {
+            builder.header("If-Modified-Since", lastModified);
+        }
+        return builder;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+}
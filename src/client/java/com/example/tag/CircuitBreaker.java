@@ -0,0 +1,89 @@
+package com.example.tag;
+
+/**
+ * Circuit breaker for a single remote host
+ * After enough consecutive failures the circuit opens and requests fail immediately;
+ * once the cool-down has passed a single trial request decides whether it closes again
+ */
+public class CircuitBreaker {
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openDurationMs;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openedAt = 0;
+
+    /**
+     * @param failureThreshold Consecutive failures before the circuit opens
+     * @param openDurationMs How long to fail fast before trying the host again
+     */
+    public CircuitBreaker(int failureThreshold, long openDurationMs) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationMs = openDurationMs;
+    }
+
+    /**
+     * Check whether a request may be sent now
+     * Every permitted request must be followed by recordSuccess or recordFailure
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.currentTimeMillis() - openedAt >= openDurationMs) {
+                    // Let one trial request through
+                    state = State.HALF_OPEN;
+                    return true;
+                }
+                return false;
+            default:
+                // A trial request is already in flight
+                return false;
+        }
+    }
+
+    public synchronized void recordSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    /**
+     * A permitted request was cancelled before its outcome was known
+     * Counts as neither success nor failure; if it was the trial request, the next request becomes the trial
+     */
+    public synchronized void recordAbandoned() {
+        if (state == State.HALF_OPEN) {
+            // openedAt is unchanged, so the open period has already elapsed
+            state = State.OPEN;
+        }
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Get the time left before the next trial request is allowed
+     */
+    public synchronized long getRemainingOpenMs() {
+        if (state != State.OPEN) {
+            return 0;
+        }
+        return Math.max(0, openDurationMs - (System.currentTimeMillis() - openedAt));
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.tag;
+
+import java.io.IOException;
+
+/**
+ * Thrown instead of sending a request while the target host's circuit breaker is open
+ */
+public class CircuitOpenException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    public CircuitOpenException(String host, long retryInMs) {
+        super(String.format("%s is unavailable, retrying in %ds", host, Math.max(1, retryInMs / 1000)));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.tag;
+
+import org.slf4j.Logger;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens connections to the API hosts ahead of the first lookup, and keeps them open while lookups are likely
+ * DNS, TCP and TLS setup happen in the background so real requests reuse a pooled connection
+ * Warm-ups go through the request scheduler at background priority, so they never take a slot a lookup needs,
+ * and through the resilient client, so they respect each host's rate limit and circuit breaker
+ */
+public class ConnectionWarmer {
+    // The JDK closes pooled connections after 30s idle and has no per-client setting for it, so ping a bit sooner
+    private static final long KEEP_WARM_INTERVAL_MS = TimeUnit.SECONDS.toMillis(25);
+
+    private final ResilientHttpClient httpClient;
+    private final RequestScheduler scheduler;
+    private final Executor executor;
+    private final Logger logger;
+    private final List<URI> hosts;
+
+    // Repeating warm-up while connected to a server; null otherwise
+    private ScheduledFuture<?> keepWarmTask;
+
+    public ConnectionWarmer(ResilientHttpClient httpClient, RequestScheduler scheduler, Executor executor, Logger logger, List<URI> hosts) {
+        this.httpClient = httpClient;
+        this.scheduler = scheduler;
+        this.executor = executor;
+        this.logger = logger;
+        this.hosts = hosts;
+    }
+
+    /**
+     * Send a HEAD request to every API host in the background
+     * Failures are only logged; the real request will simply pay the setup cost itself
+     */
+    public CompletableFuture<Void> warmUp() {
+        // Even starting a request resolves DNS, so keep it off the caller's thread
+        return CompletableFuture.supplyAsync(() -> hosts.stream()
+                        .map(this::warmUp)
+                        .toArray(CompletableFuture<?>[]::new), executor)
+                .thenCompose(CompletableFuture::allOf);
+    }
+
+    /**
+     * Warm up now and again before the pooled connections would time out, until stopKeepingWarm is called
+     * Used while connected to a server, when nametags and commands can ask for tiers at any moment
+     */
+    public synchronized void keepWarm() {
+        if (keepWarmTask != null) {
+            return;
+        }
+        warmUp();
+        keepWarmTask = ModExecutors.repeating(this::warmUp, KEEP_WARM_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop the repeating warm-up; idle connections are then closed by the client after its timeout
+     */
+    public synchronized void stopKeepingWarm() {
+        if (keepWarmTask != null) {
+            keepWarmTask.cancel(false);
+            keepWarmTask = null;
+        }
+    }
+
+    private CompletableFuture<Void> warmUp(URI host) {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(host)
+                .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                .timeout(Duration.ofSeconds(10))
+                .build();
+
+        return scheduler.submit(null, RequestPriority.BACKGROUND, () -> {
+            long start = System.nanoTime();
+            return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, error) -> {
+                        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+                        if (error != null) {
+                            logger.debug("Connection warm-up to {} failed after {}ms: {}", host.getHost(), elapsedMs, error.toString());
+                        } else {
+                            logger.debug("Warmed up connection to {} over {} in {}ms", host.getHost(), response.version(), elapsedMs);
+                        }
+                        return null;
+                    });
+        });
+    }
+}
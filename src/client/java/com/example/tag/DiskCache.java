@@ -0,0 +1,385 @@
+package com.example.tag;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import net.fabricmc.loader.api.FabricLoader;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Second cache level on disk, so a restarted game doesn't start cold
+ * Profiles and tier lists are stored one file each and only read when the memory cache misses;
+ * name mappings are small and kept together in one file that is read in the background on first use
+ * Nothing here touches the disk on the calling thread, so it is safe to use from the client thread
+ */
+public class DiskCache {
+    private static final Gson GSON = new Gson();
+    private static final Type NAMES_TYPE = new TypeToken<Map<String, NameMapping>>(){}.getType();
+
+    private static final String NAMES_FILE = "names.json";
+
+    // Name mappings change constantly during a session, so writes to them are batched
+    private static final long NAMES_FLUSH_DELAY_MS = TimeUnit.SECONDS.toMillis(5);
+
+    // Longest the game waits for queued writes when it is closing
+    private static final long SHUTDOWN_FLUSH_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(3);
+
+    private final Path directory;
+    private final Logger logger;
+
+    // namespace + ":" + key -> mapping; null until the names file is first needed, then completes once it has been read
+    private volatile CompletableFuture<Map<String, NameMapping>> names;
+    private final AtomicBoolean namesFlushScheduled = new AtomicBoolean(false);
+
+    // Last queued operation per file; the next one for that file waits for it, so writes land in the order they were made
+    private final ConcurrentHashMap<Path, CompletableFuture<?>> pending = new ConcurrentHashMap<>();
+
+    public DiskCache(Path directory, Logger logger) {
+        this.directory = directory;
+        this.logger = logger;
+    }
+
+    /**
+     * Cache stored under the Fabric config directory
+     */
+    public static DiskCache inConfigDir(Logger logger) {
+        return new DiskCache(FabricLoader.getInstance().getConfigDir().resolve("is-tier-tagger-cache"), logger);
+    }
+
+    /**
+     * A stored value and the times it stops being fresh and usable
+     */
+    public static class Record {
+        private final JsonElement data;
+        private final long staleTime;
+        private final long expirationTime;
+        private final String etag;
+        private final String lastModified;
+
+        public Record(JsonElement data, long staleTime, long expirationTime, CacheValidators validators) {
+            this.data = data;
+            this.staleTime = staleTime;
+            this.expirationTime = expirationTime;
+            this.etag = validators != null ? validators.getEtag() : null;
+            this.lastModified = validators != null ? validators.getLastModified() : null;
+        }
+
+        public JsonElement getData() {
+            return data;
+        }
+
+        public long getStaleTime() {
+            return staleTime;
+        }
+
+        public long getExpirationTime() {
+            return expirationTime;
+        }
+
+        /**
+         * @return Validators to revalidate the value with, or null if there are none
+         */
+        public CacheValidators getValidators() {
+            return etag != null || lastModified != null ? new CacheValidators(etag, lastModified) : null;
+        }
+
+        /**
+         * Whether the record is no use anymore: expired, and no validators to revalidate it with
+         */
+        private boolean isDead() {
+            return System.currentTimeMillis() > expirationTime && etag == null && lastModified == null;
+        }
+    }
+
+    /**
+     * A stored name mapping and when it expires
+     */
+    public static class NameMapping {
+        private final String value;
+        private final long expirationTime;
+
+        public NameMapping(String value, long expirationTime) {
+            this.value = value;
+            this.expirationTime = expirationTime;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public long getExpirationTime() {
+            return expirationTime;
+        }
+    }
+
+    /**
+     * Read a stored value in the background, after any pending write of the same key
+     * @param namespace Kind of value, e.g. "players"
+     * @return Future completing with the record, or null if nothing usable is stored
+     */
+    public CompletableFuture<Record> loadAsync(String namespace, String key) {
+        Path file = fileFor(namespace, key);
+
+        // Hand out a copy, so a caller cancelling its future can't let the next write start early
+        return enqueue(file, () -> read(file, namespace, key)).copy();
+    }
+
+    private Record read(Path file, String namespace, String key) {
+        if (!Files.exists(file)) {
+            return null;
+        }
+
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Record record = GSON.fromJson(reader, Record.class);
+            if (record == null || record.data == null || record.isDead()) {
+                delete(file);
+                return null;
+            }
+            logger.debug("Loaded {} {} from disk cache", namespace, key);
+            return record;
+        } catch (IOException | JsonParseException e) {
+            logger.warn("Discarding unreadable disk cache file {}: {}", file.getFileName(), e.toString());
+            delete(file);
+            return null;
+        }
+    }
+
+    /**
+     * Store a value in the background, after any earlier write or removal of the same key
+     */
+    public void save(String namespace, String key, Record record) {
+        Path file = fileFor(namespace, key);
+        enqueue(file, () -> {
+            try {
+                write(file, record);
+            } catch (IOException e) {
+                logger.warn("Failed to write {} {} to disk cache: {}", namespace, key, e.toString());
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Remove a stored value in the background, after any earlier write of the same key
+     */
+    public void remove(String namespace, String key) {
+        Path file = fileFor(namespace, key);
+        enqueue(file, () -> {
+            delete(file);
+            return null;
+        });
+    }
+
+    /**
+     * Run a file operation in the background once the previous operation on the same file has finished
+     * Each file gets its own chain, so operations on different keys still run in parallel
+     */
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> enqueue(Path file, Supplier<T> operation) {
+        CompletableFuture<T> task = (CompletableFuture<T>) pending.compute(file, (path, previous) ->
+                (previous != null ? previous : CompletableFuture.completedFuture(null))
+                        .handleAsync((ignored, error) -> operation.get(), ModExecutors.background()));
+
+        // Drop the chain once it is idle; a newer operation has replaced it otherwise
+        task.whenComplete((result, error) -> pending.remove(file, task));
+        return task;
+    }
+
+    /**
+     * Start reading the name mappings in the background, so they are ready by the first lookup
+     */
+    public void preloadNames() {
+        names();
+    }
+
+    /**
+     * Look up a name mapping, e.g. username -> UUID
+     * Only answers from memory; until the names file has been read every lookup misses
+     * @return The mapping, or null if none is stored, it has expired or the names aren't loaded yet
+     */
+    public NameMapping loadName(String namespace, String key) {
+        Map<String, NameMapping> loaded = names().getNow(null);
+        if (loaded == null) {
+            return null;
+        }
+
+        NameMapping mapping = loaded.get(namespace + ":" + key);
+        if (mapping == null || System.currentTimeMillis() > mapping.expirationTime) {
+            return null;
+        }
+        return mapping;
+    }
+
+    /**
+     * Store a name mapping; mappings are written to disk a few seconds later in one batch
+     */
+    public void saveName(String namespace, String key, String value, long expirationTime) {
+        // Applied once the stored mappings are loaded, so they can't overwrite this newer one
+        names().thenAccept(loaded -> {
+            loaded.put(namespace + ":" + key, new NameMapping(value, expirationTime));
+
+            if (namesFlushScheduled.compareAndSet(false, true)) {
+                ModExecutors.delayed(NAMES_FLUSH_DELAY_MS, TimeUnit.MILLISECONDS).execute(this::flushNames);
+            }
+        });
+    }
+
+    private CompletableFuture<Map<String, NameMapping>> names() {
+        CompletableFuture<Map<String, NameMapping>> loading = names;
+        if (loading != null) {
+            return loading;
+        }
+
+        synchronized (this) {
+            if (names == null) {
+                names = CompletableFuture.supplyAsync(this::readNames, ModExecutors.background());
+            }
+            return names;
+        }
+    }
+
+    private Map<String, NameMapping> readNames() {
+        Map<String, NameMapping> result = new ConcurrentHashMap<>();
+        Path file = directory.resolve(NAMES_FILE);
+        if (!Files.exists(file)) {
+            return result;
+        }
+
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Map<String, NameMapping> stored = GSON.fromJson(reader, NAMES_TYPE);
+            if (stored != null) {
+                long now = System.currentTimeMillis();
+                stored.forEach((key, mapping) -> {
+                    if (mapping != null && mapping.value != null && mapping.expirationTime > now) {
+                        result.put(key, mapping);
+                    }
+                });
+            }
+            logger.info("Loaded {} name mappings from disk cache", result.size());
+        } catch (IOException | JsonParseException e) {
+            logger.warn("Discarding unreadable disk cache file {}: {}", NAMES_FILE, e.toString());
+            delete(file);
+        }
+        return result;
+    }
+
+    /**
+     * Finish every queued write and write pending name mappings now
+     * Called when the game is closing, before the background executor stops, so the last few seconds of lookups
+     * aren't lost; gives up on writes still queued after a few seconds rather than hold up the exit
+     */
+    public void flush() {
+        flushNames();
+
+        CompletableFuture<?>[] queued = pending.values().toArray(new CompletableFuture<?>[0]);
+        if (queued.length == 0) {
+            return;
+        }
+        try {
+            CompletableFuture.allOf(queued).get(SHUTDOWN_FLUSH_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("Gave up waiting for {} disk cache writes", pending.size());
+        } catch (ExecutionException e) {
+            logger.warn("Failed to finish disk cache writes: {}", e.getCause().toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Write pending name mappings now
+     * Waits for the names file to finish loading if it hasn't yet, so never call it on the client thread
+     */
+    public void flushNames() {
+        namesFlushScheduled.set(false);
+        CompletableFuture<Map<String, NameMapping>> loading = names;
+        if (loading == null) {
+            return;
+        }
+
+        try {
+            write(directory.resolve(NAMES_FILE), loading.join());
+        } catch (IOException e) {
+            logger.warn("Failed to write name mappings to disk cache: {}", e.toString());
+        }
+    }
+
+    /**
+     * Delete everything stored on disk
+     * Each file is deleted after the operations already queued for it, so a write in flight can't bring it back
+     */
+    public void clear() {
+        CompletableFuture<Map<String, NameMapping>> loading = names;
+        if (loading != null) {
+            loading.join().clear();
+        }
+
+        // Files about to be written may not exist yet
+        Set<Path> files = new HashSet<>(pending.keySet());
+        if (Files.isDirectory(directory)) {
+            try (Stream<Path> stored = Files.walk(directory)) {
+                stored.filter(Files::isRegularFile).forEach(files::add);
+            } catch (IOException e) {
+                logger.warn("Failed to list disk cache files: {}", e.toString());
+            }
+        }
+
+        for (Path file : files) {
+            enqueue(file, () -> {
+                delete(file);
+                return null;
+            });
+        }
+    }
+
+    private Path fileFor(String namespace, String key) {
+        // Keys are UUIDs and game mode names, but never let one escape the directory
+        String safeKey = key.toLowerCase().replaceAll("[^a-z0-9_-]", "_");
+        return directory.resolve(namespace).resolve(safeKey + ".json");
+    }
+
+    /**
+     * Write through a temporary file, so a crash mid-write never leaves a truncated file behind
+     */
+    private static void write(Path file, Object value) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                GSON.toJson(value, writer);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Retried the next time the file is read
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.example.tag;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * In-process stand-in for the Israel Tiers and Mojang APIs, serving synthetic players
+ * Used to load-test lookups and leaderboards without network access
+ *
+ * Enable with -Distagger.fakeBackend=true; tune with
+ * -Distagger.fakeBackend.players (default 1000), .latencyMs (default 50) and .errorRate (0-1, default 0)
+ */
+public class FakeTierDataServer {
+    private static final Gson GSON = new Gson();
+
+    public static final String ENABLED_PROPERTY = "istagger.fakeBackend";
+    private static final String PLAYERS_PROPERTY = "istagger.fakeBackend.players";
+    private static final String LATENCY_PROPERTY = "istagger.fakeBackend.latencyMs";
+    private static final String ERROR_RATE_PROPERTY = "istagger.fakeBackend.errorRate";
+
+    private static final String[] GAME_MODES = {"crystal", "sword", "uhc", "pot", "smp"};
+    private static final String[] TIERS = {"HT1", "LT1", "HT2", "LT2", "HT3", "LT3", "HT4", "LT4", "HT5", "LT5"};
+    private static final Pattern PLAYER_NAME = Pattern.compile("player(\\d+)", Pattern.CASE_INSENSITIVE);
+
+    // All synthetic tiers were "last updated" relative to this fixed point, so responses are stable
+    private static final long BASE_TIMESTAMP = 1735689600L;
+
+    private final Logger logger;
+    private final int playerCount;
+    private final long latencyMs;
+    private final double errorRate;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private final Map<String, Integer> playerIndexByUuid = new HashMap<>();
+    private final Map<String, byte[]> tierListBodies = new ConcurrentHashMap<>();
+
+    /**
+     * @param playerCount Number of synthetic players
+     * @param latencyMs Delay added to every response
+     * @param errorRate Fraction of requests answered with 503
+     */
+    public FakeTierDataServer(Logger logger, int playerCount, long latencyMs, double errorRate) throws IOException {
+        this.logger = logger;
+        this.playerCount = playerCount;
+        this.latencyMs = latencyMs;
+        this.errorRate = errorRate;
+
+        for (int i = 0; i < playerCount; i++) {
+            playerIndexByUuid.put(uuidOf(i), i);
+        }
+
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.executor = Executors.newFixedThreadPool(8, runnable -> {
+            Thread thread = new Thread(runnable, "IsTierTagger-FakeServer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(ENABLED_PROPERTY);
+    }
+
+    /**
+     * Create a server configured from the istagger.fakeBackend.* system properties
+     */
+    public static FakeTierDataServer fromSystemProperties(Logger logger) throws IOException {
+        int players = Integer.getInteger(PLAYERS_PROPERTY, 1000);
+        long latency = Long.getLong(LATENCY_PROPERTY, 50L);
+        double errorRate = Double.parseDouble(System.getProperty(ERROR_RATE_PROPERTY, "0"));
+        return new FakeTierDataServer(logger, players, latency, errorRate);
+    }
+
+    public void start() {
+        server.start();
+        logger.info("Fake tier data server listening on port {} with {} players, {}ms latency, {} error rate",
+                server.getAddress().getPort(), playerCount, latencyMs, errorRate);
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * A backend sending every request to this server
+     * It has no rate limits or circuit breaker, so injected errors and latency reach the client as they are
+     */
+    public TierDataBackend getBackend() {
+        return HttpTierDataBackend.local("http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (latencyMs > 0) {
+                TimeUnit.MILLISECONDS.sleep(latencyMs);
+            }
+
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                sendJson(exchange, 503, "{\"error\":\"Service Unavailable\"}");
+                return;
+            }
+
+            String path = exchange.getRequestURI().getPath();
+            if (exchange.getRequestMethod().equals("HEAD")) {
+                exchange.sendResponseHeaders(200, -1);
+            } else if (path.equals("/api/tiers")) {
+                handleTierList(exchange);
+            } else if (path.startsWith("/api/user/")) {
+                handlePlayerData(exchange, path.substring("/api/user/".length()));
+            } else if (path.startsWith("/user/profile/")) {
+                handleProfile(exchange, path.substring("/user/profile/".length()));
+            } else if (path.equals("/minecraft/profile/lookup/bulk/byname")) {
+                handleBulkLookup(exchange);
+            } else {
+                sendJson(exchange, 404, "{\"error\":\"Not Found\"}");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("Fake tier data server failed to answer {}", exchange.getRequestURI(), e);
+            if (exchange.getResponseCode() == -1) {
+                sendJson(exchange, 500, "{\"error\":\"Internal Server Error\"}");
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleTierList(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getQuery();
+        String filter = query != null && query.startsWith("filter=") ? query.substring("filter=".length()) : "crystal";
+
+        // The synthetic data never changes, so one ETag per mode is enough to exercise revalidation
+        String etag = "\"fake-" + filter + "-" + playerCount + "\"";
+        exchange.getResponseHeaders().set("ETag", etag);
+        if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+
+        byte[] body = tierListBodies.computeIfAbsent(filter, this::buildTierList);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            body = gzip(body);
+        }
+        send(exchange, 200, body);
+    }
+
+    private byte[] buildTierList(String filter) {
+        JsonArray players = new JsonArray();
+        for (int i = 0; i < playerCount; i++) {
+            JsonObject player = new JsonObject();
+            player.addProperty("minecraftUUID", uuidOf(i));
+            player.addProperty("username", nameOf(i));
+            // Like the real API, entries carry every mode, not just the filtered one
+            for (String gameMode : GAME_MODES) {
+                JsonArray modeStats = statsOf(i, gameMode);
+                if (modeStats != null) {
+                    player.add(gameMode, modeStats);
+                }
+            }
+            players.add(player);
+        }
+        return GSON.toJson(players).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void handlePlayerData(HttpExchange exchange, String uuid) throws IOException {
+        Integer index = playerIndexByUuid.get(uuid.toLowerCase());
+        if (index == null) {
+            sendJson(exchange, 404, "{\"error\":\"User not found\"}");
+            return;
+        }
+
+        JsonObject gameStats = new JsonObject();
+        for (String gameMode : GAME_MODES) {
+            JsonArray modeStats = statsOf(index, gameMode);
+            if (modeStats != null) {
+                gameStats.add(gameMode, modeStats);
+            }
+        }
+
+        JsonArray stats = new JsonArray();
+        stats.add(gameStats);
+
+        JsonObject userData = new JsonObject();
+        userData.addProperty("discordId", String.valueOf(100000 + index));
+        userData.add("stats", stats);
+
+        JsonObject playerData = new JsonObject();
+        playerData.addProperty("id", uuid);
+        playerData.add("userData", userData);
+
+        sendJson(exchange, 200, GSON.toJson(playerData));
+    }
+
+    private void handleProfile(HttpExchange exchange, String uuid) throws IOException {
+        Integer index = playerIndexByUuid.get(MojangUuidBatcher.formatUuid(uuid).toLowerCase());
+        if (index == null) {
+            exchange.sendResponseHeaders(204, -1);
+            return;
+        }
+
+        JsonObject profile = new JsonObject();
+        profile.addProperty("id", uuidOf(index).replace("-", ""));
+        profile.addProperty("name", nameOf(index));
+        sendJson(exchange, 200, GSON.toJson(profile));
+    }
+
+    private void handleBulkLookup(HttpExchange exchange) throws IOException {
+        JsonArray names;
+        try (InputStreamReader reader = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+            names = GSON.fromJson(reader, JsonArray.class);
+        }
+
+        JsonArray profiles = new JsonArray();
+        for (JsonElement element : names) {
+            Matcher matcher = PLAYER_NAME.matcher(element.getAsString());
+            if (matcher.matches()) {
+                int index = Integer.parseInt(matcher.group(1));
+                if (index < playerCount) {
+                    JsonObject profile = new JsonObject();
+                    profile.addProperty("id", uuidOf(index).replace("-", ""));
+                    profile.addProperty("name", nameOf(index));
+                    profiles.add(profile);
+                }
+            }
+        }
+        sendJson(exchange, 200, GSON.toJson(profiles));
+    }
+
+    private static String uuidOf(int index) {
+        return UUID.nameUUIDFromBytes(("fake-player-" + index).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    private static String nameOf(int index) {
+        return "Player" + index;
+    }
+
+    /**
+     * Deterministic tier for a player in a mode; roughly one in seven players is unranked in each mode
+     */
+    private static JsonArray statsOf(int index, String gameMode) {
+        int seed = index * 31 + gameMode.hashCode();
+        if (Math.floorMod(seed, 7) == 0) {
+            return null;
+        }
+
+        JsonObject tierData = new JsonObject();
+        tierData.addProperty("tier", TIERS[Math.floorMod(seed, TIERS.length)]);
+        tierData.addProperty("lastupdate", String.valueOf(BASE_TIMESTAMP - Math.floorMod(seed, 365) * 86400L));
+
+        JsonArray modeStats = new JsonArray();
+        modeStats.add(tierData);
+        return modeStats;
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, String json) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        send(exchange, status, json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.tag;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Approximate access counts for cache keys (a count-min sketch with 4-bit counters)
+ * Counts are halved periodically, so keys that were popular long ago lose their advantage
+ * Lock-free: sixteen counters are packed into each long and updated with compare-and-set, so cache reads never block
+ */
+public class FrequencySketch {
+    private static final int MAX_COUNT = 15;
+    private static final int DEPTH = 4;
+    private static final int COUNTERS_PER_LONG = 16;
+    private static final int MAX_EXPECTED_ENTRIES = 1 << 20;
+
+    // Every counter shifted right by one, with the bit that would spill into the next counter cleared
+    private static final long HALVE_MASK = 0x7777777777777777L;
+
+    // Odd multipliers, one per row, to derive independent indexes from one hash
+    private static final long[] SEEDS = {0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L};
+
+    // DEPTH rows of width counters each, laid out row after row
+    private final AtomicLongArray table;
+    private final int width;
+    private final int mask;
+    private final int sampleSize;
+    private final AtomicInteger additions = new AtomicInteger();
+
+    /**
+     * @param expectedEntries Roughly how many keys the cache holds
+     */
+    public FrequencySketch(int expectedEntries) {
+        // Capped so a huge cache can't make the table itself huge; counts just get less precise
+        int entries = Math.min(Math.max(16, expectedEntries), MAX_EXPECTED_ENTRIES);
+        this.width = Integer.highestOneBit(entries - 1) << 1;
+        this.table = new AtomicLongArray(DEPTH * width / COUNTERS_PER_LONG);
+        this.mask = width - 1;
+        this.sampleSize = 10 * width;
+    }
+
+    /**
+     * Record one access to the key
+     */
+    public void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int row = 0; row < DEPTH; row++) {
+            added |= tryIncrement(row * width + indexOf(hash, row));
+        }
+
+        // Exactly one thread sees the count reach the sample size, so only one ages the counters
+        if (added && additions.incrementAndGet() == sampleSize) {
+            reset();
+        }
+    }
+
+    private boolean tryIncrement(int counter) {
+        int slot = counter / COUNTERS_PER_LONG;
+        int shift = (counter % COUNTERS_PER_LONG) * 4;
+        while (true) {
+            long current = table.get(slot);
+            if (((current >>> shift) & MAX_COUNT) == MAX_COUNT) {
+                return false;
+            }
+            if (table.compareAndSet(slot, current, current + (1L << shift))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Estimate how often the key was accessed recently
+     */
+    public int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        for (int row = 0; row < DEPTH; row++) {
+            frequency = Math.min(frequency, counterAt(row * width + indexOf(hash, row)));
+        }
+        return frequency;
+    }
+
+    private int counterAt(int counter) {
+        long value = table.get(counter / COUNTERS_PER_LONG);
+        return (int) (value >>> ((counter % COUNTERS_PER_LONG) * 4)) & MAX_COUNT;
+    }
+
+    public void clear() {
+        for (int i = 0; i < table.length(); i++) {
+            table.set(i, 0);
+        }
+        additions.set(0);
+    }
+
+    /**
+     * Halve every counter
+     * Increments racing with this may be halved or not; the counts are estimates either way
+     */
+    private void reset() {
+        for (int i = 0; i < table.length(); i++) {
+            long current;
+            do {
+                current = table.get(i);
+            } while (!table.compareAndSet(i, current, (current >>> 1) & HALVE_MASK));
+        }
+        additions.addAndGet(-sampleSize / 2);
+    }
+
+    private int indexOf(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        return (int) (h >>> 32) & mask;
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 17;
+        hash *= 0xED5AD4BB;
+        hash ^= hash >>> 11;
+        return hash;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.tag;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Helpers for passing cancellation back up a chain of futures
+ * CompletableFuture only cancels the stage it is called on, so a cancelled result would otherwise
+ * leave the requests it was built from running
+ */
+public final class FutureCancellation {
+    private FutureCancellation() {
+    }
+
+    /**
+     * Cancel the upstream futures once the downstream one is cancelled
+     * @return The downstream future, for chaining
+     */
+    public static <T> CompletableFuture<T> forward(CompletableFuture<T> downstream, CompletableFuture<?>... upstream) {
+        downstream.whenComplete((value, error) -> {
+            if (downstream.isCancelled()) {
+                for (CompletableFuture<?> future : upstream) {
+                    future.cancel(true);
+                }
+            }
+        });
+        return downstream;
+    }
+
+    /**
+     * Like first.thenCompose(next), but cancelling the result also cancels whichever step is running
+     */
+    public static <T, U> CompletableFuture<U> compose(CompletableFuture<T> first,
+                                                      Function<? super T, ? extends CompletableFuture<U>> next) {
+        CompletableFuture<U> result = new CompletableFuture<>();
+        forward(result, first);
+
+        first.whenComplete((value, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error);
+                return;
+            }
+            if (result.isDone()) {
+                return;
+            }
+
+            CompletableFuture<U> second;
+            try {
+                second = next.apply(value);
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+                return;
+            }
+
+            forward(result, second);
+            second.whenComplete((secondValue, secondError) -> {
+                if (secondError != null) {
+                    result.completeExceptionally(secondError);
+                } else {
+                    result.complete(secondValue);
+                }
+            });
+        });
+        return result;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.tag;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Tier data backend talking to Israel Tiers and Mojang over HTTP
+ * Base URIs are configurable so the same requests can be pointed at a local server
+ */
+public class HttpTierDataBackend implements TierDataBackend {
+    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/132.0.0.0 Safari/537.36";
+
+    private final String siteBase;
+    private final String apiBase;
+    private final String mojangApiBase;
+    private final String minecraftServicesBase;
+    private final boolean guarded;
+
+    /**
+     * @param siteBase Israel Tiers website, serves player profiles
+     * @param apiBase Israel Tiers API, serves tier lists
+     * @param mojangApiBase Mojang API, serves UUID -> username lookups
+     * @param minecraftServicesBase Minecraft services, serves bulk username -> UUID lookups
+     */
+    public HttpTierDataBackend(String siteBase, String apiBase, String mojangApiBase, String minecraftServicesBase) {
+        this(siteBase, apiBase, mojangApiBase, minecraftServicesBase, true);
+    }
+
+    private HttpTierDataBackend(String siteBase, String apiBase, String mojangApiBase, String minecraftServicesBase,
+                                boolean guarded) {
+        this.siteBase = siteBase;
+        this.apiBase = apiBase;
+        this.mojangApiBase = mojangApiBase;
+        this.minecraftServicesBase = minecraftServicesBase;
+        this.guarded = guarded;
+    }
+
+    /**
+     * Every endpoint served by one local server, without rate limits or circuit breakers
+     * @param base e.g. "http://127.0.0.1:8080"
+     */
+    public static HttpTierDataBackend local(String base) {
+        return new HttpTierDataBackend(base, base, base, base, false);
+    }
+
+    /**
+     * The live Israel Tiers and Mojang endpoints
+     */
+    public static HttpTierDataBackend israelTiers() {
+        return new HttpTierDataBackend(
+                "https://israeltiers.com",
+                "https://api.israeltiers.com",
+                "https://api.mojang.com",
+                "https://api.minecraftservices.com");
+    }
+
+    @Override
+    public HttpRequest.Builder playerDataRequest(String uuid) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(siteBase + "/api/user/" + uuid))
+                .header("accept", "application/json, text/plain, */*")
+                .header("accept-language", "en-US,en;q=0.9")
+                .header("referer", siteBase + "/p/" + uuid)
+                .header("sec-fetch-dest", "empty")
+                .header("sec-fetch-mode", "cors")
+                .header("sec-fetch-site", "same-origin")
+                .header("user-agent", USER_AGENT)
+                .timeout(Duration.ofSeconds(20))
+                .GET();
+    }
+
+    @Override
+    public HttpRequest.Builder tierListRequest(String filter) {
+        // The API requires proper authentication headers
+        return HttpRequest.newBuilder()
+                .uri(URI.create(apiBase + "/api/tiers?filter=" + filter))
+                // These headers are important to pass authentication
+                .header("accept", "application/json")
+                .header("Accept-Encoding", "gzip")
+                .header("Origin", siteBase)
+                .header("Referer", siteBase + "/" + filter)
+                .header("User-Agent", USER_AGENT)
+                // The website might be using cookies for authentication
+                .header("Cookie", "connect.sid=s%3A...; other-cookies-if-needed")
+                .GET()
+                .timeout(Duration.ofSeconds(20));
+    }
+
+    @Override
+    public HttpRequest.Builder usernameRequest(String uuid) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(mojangApiBase + "/user/profile/" + uuid))
+                .GET();
+    }
+
+    @Override
+    public HttpRequest.Builder bulkUuidRequest(String namesJson) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(minecraftServicesBase + "/minecraft/profile/lookup/bulk/byname"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(namesJson))
+                .timeout(Duration.ofSeconds(10));
+    }
+
+    @Override
+    public List<URI> getWarmUpTargets() {
+        return Stream.of(siteBase, apiBase, mojangApiBase, minecraftServicesBase)
+                .distinct()
+                .map(base -> URI.create(base + "/"))
+                .toList();
+    }
+
+    @Override
+    public boolean isGuarded() {
+        return guarded;
+    }
+}
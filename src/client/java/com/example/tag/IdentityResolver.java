@@ -0,0 +1,91 @@
+package com.example.tag;
+
+import org.slf4j.Logger;
+
+/**
+ * Looks up UUIDs and usernames in what the client already knows, before anything goes to Mojang
+ * Sources are checked in order: the server's player list, the caches, then tracked history
+ * Every lookup is a map read, so it is fine on the client thread
+ */
+public class IdentityResolver {
+    private final Logger logger;
+    private final PlayerDataCache cache;
+
+    // Attached once the client has created them; null until then
+    private volatile OnlinePlayerTracker onlinePlayers;
+    private volatile PlayerHistoryTracker historyTracker;
+
+    public IdentityResolver(Logger logger, PlayerDataCache cache) {
+        this.logger = logger;
+        this.cache = cache;
+    }
+
+    public void setOnlinePlayers(OnlinePlayerTracker onlinePlayers) {
+        this.onlinePlayers = onlinePlayers;
+    }
+
+    public void setHistoryTracker(PlayerHistoryTracker historyTracker) {
+        this.historyTracker = historyTracker;
+    }
+
+    /**
+     * Find a player's UUID without going to the network
+     * @return The dashed UUID, or null if no local source knows the name
+     */
+    public String findUuid(String username) {
+        OnlinePlayerTracker online = onlinePlayers;
+        if (online != null) {
+            String uuid = online.findUuid(username);
+            if (uuid != null) {
+                logger.debug("Resolved {} from the player list", username);
+                return uuid;
+            }
+        }
+
+        String cachedUuid = cache.getCachedUUID(username);
+        if (cachedUuid != null) {
+            return cachedUuid;
+        }
+
+        // Last resort: names in history may be outdated, which is why the cache is asked first
+        PlayerHistoryTracker history = historyTracker;
+        if (history != null) {
+            PlayerHistoryTracker.PlayerHistory tracked = history.findByUsername(username);
+            if (tracked != null) {
+                logger.debug("Resolved {} from tracked history", username);
+                return tracked.getUuid();
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Find a player's username without going to the network
+     * @return The username, or null if no local source knows the UUID
+     */
+    public String findUsername(String uuid) {
+        OnlinePlayerTracker online = onlinePlayers;
+        if (online != null) {
+            String username = online.findUsername(uuid);
+            if (username != null) {
+                return username;
+            }
+        }
+
+        String cachedName = cache.getCachedUsername(uuid);
+        if (cachedName != null) {
+            return cachedName;
+        }
+
+        PlayerHistoryTracker history = historyTracker;
+        if (history != null) {
+            PlayerHistoryTracker.PlayerHistory tracked = history.getPlayerHistory(uuid);
+            if (tracked != null && tracked.getUsername() != null) {
+                return tracked.getUsername();
+            }
+        }
+
+        return null;
+    }
+}
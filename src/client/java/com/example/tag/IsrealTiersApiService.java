@@ -1,29 +1,56 @@
 package com.example.tag;
 
 import com.google.gson.Gson;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import org.slf4j.Logger;
 
-import java.net.URI;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.text.SimpleDateFormat;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Service class to handle all API requests to Israel Tiers and Mojang APIs
+ * All network calls are non-blocking and return CompletableFutures built on HttpClient.sendAsync
+ * A single instance is owned by IstiertaggerClient and shared by every screen and manager
  */
 public class IsrealTiersApiService {
     private static final Gson GSON = new Gson();
-    private final HttpClient httpClient;
+
+    private final TierDataBackend backend;
+    private final ResilientHttpClient httpClient;
+    private final ConnectionWarmer connectionWarmer;
 
     private final Logger logger;
     private final PlayerDataCache cache;
+    private final MojangUuidBatcher uuidBatcher;
+    private final UsernameResolver usernameResolver;
+    private final IdentityResolver identityResolver;
+
+    // Orders requests by priority; two of the eight slots are kept free for interactive lookups
+    private final RequestScheduler scheduler = new RequestScheduler(8, 2);
+
+    // Pending lookups, so concurrent callers reuse one request per key
+    // Once every caller has cancelled, the lookup's future is cancelled, which also drops its request from the scheduler
+    private final RequestCoalescer inFlight = new RequestCoalescer();
+
+    // Views that update themselves from tier list changes instead of reloading
+    private final List<TierChangeListener> tierChangeListeners = new CopyOnWriteArrayList<>();
 
     // Special UUID for hardcoded player data
     private static final String SPECIAL_UUID = "ca10edbe-9313-4fb1-95ee-534c2fed5f02";
@@ -34,403 +61,601 @@ public class IsrealTiersApiService {
             JsonObject.class
     );
 
-    public IsrealTiersApiService(Logger logger) {
+    /**
+     * @param backend Where requests are sent, e.g. a local FakeTierDataServer for offline testing
+     * @param diskCache Where responses are kept between sessions, or null to cache in memory only
+     */
+    public IsrealTiersApiService(Logger logger, TierDataBackend backend, DiskCache diskCache) {
         this.logger = logger;
-        this.cache = new PlayerDataCache(logger);
+        this.backend = backend;
+        this.cache = new PlayerDataCache(logger, diskCache);
+        this.cache.startExpirySweeper();
 
         // Initialize HTTP client with timeout from config
+        // HTTP/2 lets concurrent lookups to the same host share one connection
         ModConfig config = ModConfig.getInstance();
-        this.httpClient = HttpClient.newBuilder()
+        // Response handlers run on the mod's virtual threads; tier list decoding happens there as the body streams in
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
                 .connectTimeout(Duration.ofSeconds(config.getApiTimeoutSeconds()))
+                .executor(ModExecutors.background())
                 .build();
+        this.httpClient = new ResilientHttpClient(client, logger, backend.isGuarded());
+        this.connectionWarmer = new ConnectionWarmer(httpClient, scheduler, ModExecutors.background(), logger, backend.getWarmUpTargets());
+        // A batch serves several callers, so it has no key of its own; it is sent at its most urgent caller's priority
+        this.uuidBatcher = new MojangUuidBatcher((request, priority) -> sendAsync(request, null, priority),
+                backend, logger, cache);
+        this.identityResolver = new IdentityResolver(logger, cache);
+        this.usernameResolver = new UsernameResolver(logger, cache, identityResolver,
+                uuid -> coalesce("name:" + uuid.toLowerCase(), RequestPriority.VISIBLE,
+                        () -> requestUsername(uuid, RequestPriority.VISIBLE)));
     }
 
     /**
-     * Create an API request to the Israel Tiers API
+     * Send a request without blocking the calling thread
+     * The scheduler decides when it starts; only then does it wait for the host's rate limit, so tokens go to
+     * requests in priority order and the wait never grows past what the running slots have borrowed
+     * Retries and the circuit breaker are applied by the resilient client
+     * @param key Key of the lookup this request belongs to, so a more urgent caller can promote it while queued
      */
-    private HttpRequest.Builder createApiRequest(String uuid) {
-        return HttpRequest.newBuilder()
-                .uri(URI.create("https://israeltiers.com/api/user/" + uuid))
-                .header("accept", "application/json, text/plain, */*")
-                .header("accept-language", "en-US,en;q=0.9")
-                .header("referer", "https://israeltiers.com/p/" + uuid)
-                .header("sec-fetch-dest", "empty")
-                .header("sec-fetch-mode", "cors")
-                .header("sec-fetch-site", "same-origin")
-                .header("user-agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/132.0.0.0 Safari/537.36")
-                .timeout(Duration.ofSeconds(20));
+    private CompletableFuture<HttpResponse<String>> sendAsync(HttpRequest request, String key, RequestPriority priority) {
+        return sendAsync(request, HttpResponse.BodyHandlers.ofString(), key, priority);
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler,
+                                                             String key, RequestPriority priority) {
+        return scheduler.submit(key, priority, () -> httpClient.sendAsync(request, bodyHandler));
     }
 
     /**
-     * Fetch UUID from username using Mojang API
+     * Join a pending lookup or start a new one
+     * If the lookup's request is still queued at a lower priority, it is moved up to this caller's priority
      */
-    public String fetchUUID(String username) throws Exception {
-        // Check cache first
-        String cachedUuid = cache.getCachedUUID(username);
-        if (cachedUuid != null) {
-            logger.debug("Using cached UUID for {}: {}", username, cachedUuid);
-            return cachedUuid;
+    private <T> CompletableFuture<T> coalesce(String key, RequestPriority priority, Supplier<CompletableFuture<T>> loader) {
+        scheduler.promote(key, priority);
+        return inFlight.coalesce(key, loader);
+    }
+
+    /**
+     * Fetch UUID from username for someone waiting on the result
+     * @return Future completing with the dashed UUID, or null if the player does not exist
+     */
+    public CompletableFuture<String> fetchUUIDAsync(String username) {
+        return fetchUUIDAsync(username, RequestPriority.INTERACTIVE);
+    }
+
+    /**
+     * Fetch UUID from username, asking Mojang's bulk profile API only if no local source knows the player
+     * @param priority How urgently the UUID is needed
+     * @return Future completing with the dashed UUID, or null if the player does not exist
+     */
+    public CompletableFuture<String> fetchUUIDAsync(String username, RequestPriority priority) {
+        // Players on the server, the cache and tracked history come first
+        String localUuid = identityResolver.findUuid(username);
+        if (localUuid != null) {
+            logger.debug("Using locally known UUID for {}: {}", username, localUuid);
+            return CompletableFuture.completedFuture(localUuid);
         }
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create("https://api.mojang.com/users/profiles/minecraft/" + username))
-                .GET()
-                .timeout(Duration.ofSeconds(10))
-                .build();
+        if (cache.isUUIDKnownMissing(username)) {
+            logger.debug("{} is a known unknown username", username);
+            return CompletableFuture.completedFuture(null);
+        }
 
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        return inFlight.coalesce("uuid:" + username.toLowerCase(), () -> requestUUID(username, priority));
+    }
 
-        if (response.statusCode() == 200) {
-            JsonObject jsonObject = GSON.fromJson(response.body(), JsonObject.class);
-            String uuid = jsonObject.get("id").getAsString();
-            uuid = uuid.replaceAll("(\\w{8})(\\w{4})(\\w{4})(\\w{4})(\\w{12})", "$1-$2-$3-$4-$5");
+    private CompletableFuture<String> requestUUID(String username, RequestPriority priority) {
+        // Lookups are grouped into bulk requests; the batcher caches what it resolves
+        return cache.getUuidMetrics().timeLoad(uuidBatcher.resolve(username, priority));
+    }
 
-            // Cache the result
-            cache.cacheUUID(username, uuid);
+    /**
+     * Fetch UUID from username, blocking until the lookup completes
+     */
+    public String fetchUUID(String username) throws Exception {
+        return await(fetchUUIDAsync(username));
+    }
 
-            return uuid;
-        }
-        return null;
+    /**
+     * Get the resolver that answers UUID and username lookups from local sources
+     * The client attaches the player list and history to it once they exist
+     */
+    public IdentityResolver getIdentityResolver() {
+        return identityResolver;
     }
 
     /**
-     * Fetch username from UUID using Mojang API
+     * Fetch username from UUID, using the player list and caches before asking the Mojang API
+     * @return Future completing with the username, or the UUID itself if Mojang does not know it
      */
-    public String fetchUsernameFromUUID(String uuid) throws Exception {
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create("https://api.mojang.com/user/profile/" + uuid))
-                .GET()
-                .build();
+    public CompletableFuture<String> fetchUsernameFromUUIDAsync(String uuid) {
+        return usernameResolver.resolve(uuid);
+    }
 
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    /**
+     * Fetch usernames for many UUIDs in parallel
+     * @return Future completing with a UUID -> username map; unresolved UUIDs map to themselves
+     */
+    public CompletableFuture<Map<String, String>> fetchUsernamesFromUUIDsAsync(Collection<String> uuids) {
+        return usernameResolver.resolveAll(uuids);
+    }
 
-        if (response.statusCode() == 200) {
-            JsonObject profile = GSON.fromJson(response.body(), JsonObject.class);
-            return profile.get("name").getAsString();
-        }
-        return uuid;
+    /**
+     * Fetch usernames for the players of a tier list
+     * Names already cached or carried by the list itself are used as they are, so usually nothing reaches Mojang
+     * @return Future completing with a UUID -> username map; unresolved UUIDs map to themselves
+     */
+    public CompletableFuture<Map<String, String>> fetchUsernamesForTierListAsync(Collection<TierListEntry> entries) {
+        return usernameResolver.resolveEntries(entries);
+    }
+
+    /**
+     * Remember usernames the client already knows, e.g. from the server's player list or tracked history
+     * @param usernames UUID -> username
+     * @param current Whether the names are known to be current, so they replace a different cached name
+     */
+    public void rememberUsernames(Map<String, String> usernames, boolean current) {
+        usernames.forEach((uuid, username) -> cache.seedUsername(uuid, username, current));
+    }
+
+    private CompletableFuture<String> requestUsername(String uuid, RequestPriority priority) {
+        return cache.getUsernameMetrics().timeLoad(sendAsync(backend.usernameRequest(uuid).build(), "name:" + uuid.toLowerCase(), priority).thenApply(response -> {
+            if (response.statusCode() == 200) {
+                JsonObject profile = GSON.fromJson(response.body(), JsonObject.class);
+                return profile.get("name").getAsString();
+            }
+            return uuid;
+        }));
+    }
+
+    /**
+     * Fetch username from UUID, blocking until the lookup completes
+     */
+    public String fetchUsernameFromUUID(String uuid) throws Exception {
+        return await(fetchUsernameFromUUIDAsync(uuid));
     }
 
     /**
      * Generate hardcoded player data with LT69 tier for the special UUID
      */
-    private JsonObject generateHardcodedPlayerData(String uuid, String username) {
+    private PlayerTierProfile generateHardcodedPlayerData(String uuid, String username) {
         // Current timestamp in seconds
         long timestamp = System.currentTimeMillis() / 1000;
 
-        // Create empty player data structure
-        JsonObject playerData = new JsonObject();
-        playerData.addProperty("id", uuid);
-
-        // Create userData object
-        JsonObject userData = new JsonObject();
-        userData.addProperty("discordId", "42069");
-
-        // Create stats array with a single item
-        JsonArray stats = new JsonArray();
-        JsonObject gameStats = new JsonObject();
-
-        // Add tier data for each game mode
-        for (String gameMode : new String[]{"crystal", "sword", "uhc", "pot", "smp"}) {
-            JsonArray modeStats = new JsonArray();
-            JsonObject tierData = new JsonObject();
-            tierData.addProperty("tier", "LT69");
-            tierData.addProperty("lastupdate", String.valueOf(timestamp));
-            modeStats.add(tierData);
-            gameStats.add(gameMode, modeStats);
-        }
-
-        stats.add(gameStats);
-        userData.add("stats", stats);
-        playerData.add("userData", userData);
+        // LT69 in every game mode
+        String[] tiers = new String[PlayerTierProfile.GAME_MODES.length];
+        long[] lastUpdates = new long[PlayerTierProfile.GAME_MODES.length];
+        Arrays.fill(tiers, "LT69");
+        Arrays.fill(lastUpdates, timestamp);
 
         logger.info("Generated hardcoded LT69 player data for {}", username);
 
-        return playerData;
+        return new PlayerTierProfile(uuid, "42069", tiers, lastUpdates);
+    }
+
+    /**
+     * Fetch player data from Israel Tiers API for someone waiting on the result
+     * @param uuid Player UUID
+     * @return Future completing with the player data, or null if it could not be fetched
+     */
+    public CompletableFuture<PlayerTierProfile> fetchPlayerDataAsync(String uuid) {
+        return fetchPlayerDataAsync(uuid, RequestPriority.INTERACTIVE);
     }
 
     /**
      * Fetch player data from Israel Tiers API
      * @param uuid Player UUID
-     * @param callback Callback with the fetched data and success status
+     * @param priority How urgently the data is needed
+     * @return Future completing with the player data, or null if it could not be fetched
      */
-    public void fetchPlayerData(String uuid, BiConsumer<JsonObject, Boolean> callback) {
+    public CompletableFuture<PlayerTierProfile> fetchPlayerDataAsync(String uuid, RequestPriority priority) {
+        String key = "player:" + uuid.toLowerCase();
+
         // Check for special UUID for hardcoded player data
         if (SPECIAL_UUID.equalsIgnoreCase(uuid)) {
-            try {
-                String username = fetchUsernameFromUUID(uuid);
-                JsonObject hardcodedData = generateHardcodedPlayerData(uuid, username);
-
-                // Cache the hardcoded data
-                cache.cachePlayerData(uuid, hardcodedData);
-
-                // Return via callback
-                callback.accept(hardcodedData, true);
-                return;
-            } catch (Exception e) {
-                logger.error("Error generating hardcoded player data", e);
-                // Fall through to normal API request if hardcoding fails
-            }
+            return inFlight.coalesce(key, () -> fetchHardcodedPlayerData(uuid));
         }
 
-        // Check cache first
-        JsonObject cachedData = cache.getCachedPlayerData(uuid);
+        // Check cache first; stale data is returned right away and refreshed in the background
+        // Prefetches don't count as lookups, so the metrics reflect what players actually asked for
+        PlayerTierProfile cachedData = priority == RequestPriority.BACKGROUND
+                ? cache.peekPlayerData(uuid)
+                : cache.getCachedPlayerData(uuid);
         if (cachedData != null) {
             logger.debug("Using cached player data for {}", uuid);
-            callback.accept(cachedData, true);
-            return;
+            if (cache.claimPlayerDataRefresh(uuid)) {
+                logger.debug("Refreshing stale player data for {} in the background", uuid);
+                coalesce(key, RequestPriority.BACKGROUND, () -> fetchPlayerDataFromApi(uuid, RequestPriority.BACKGROUND));
+            }
+            return CompletableFuture.completedFuture(cachedData);
         }
 
-        try {
-            HttpRequest request = createApiRequest(uuid)
-                    .GET()
-                    .build();
+        // Players the API recently had no profile for aren't asked about again until the miss expires
+        if (cache.isPlayerDataKnownMissing(uuid)) {
+            logger.debug("No player data for {} (cached miss)", uuid);
+            return CompletableFuture.completedFuture(null);
+        }
 
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        // Profiles saved in an earlier session are read from disk off the calling thread before asking the API
+        return coalesce(key, priority, () -> FutureCancellation.compose(cache.restorePlayerData(uuid), restored -> restored != null
+                ? CompletableFuture.completedFuture(restored)
+                : fetchPlayerDataFromApi(uuid, priority)));
+    }
 
-            if (response.statusCode() == 200) {
-                JsonObject data = GSON.fromJson(response.body(), JsonObject.class);
+    private CompletableFuture<PlayerTierProfile> fetchHardcodedPlayerData(String uuid) {
+        return fetchUsernameFromUUIDAsync(uuid)
+                .thenApply(username -> {
+                    PlayerTierProfile hardcodedData = generateHardcodedPlayerData(uuid, username);
+
+                    // Cache the hardcoded data
+                    cache.cachePlayerData(uuid, hardcodedData);
+                    return hardcodedData;
+                })
+                .exceptionallyCompose(e -> {
+                    logger.error("Error generating hardcoded player data", e);
+                    // Fall through to normal API request if hardcoding fails
+                    return fetchPlayerDataFromApi(uuid, RequestPriority.INTERACTIVE);
+                });
+    }
 
-                // Cache the result
-                cache.cachePlayerData(uuid, data);
+    private CompletableFuture<PlayerTierProfile> fetchPlayerDataFromApi(String uuid, RequestPriority priority) {
+        String key = "player:" + uuid.toLowerCase();
+        HttpRequest.Builder builder = backend.playerDataRequest(uuid);
 
-                callback.accept(data, true);
-            } else {
-                callback.accept(null, false);
-            }
-        } catch (Exception e) {
-            logger.error("Error fetching player data", e);
-            callback.accept(null, false);
+        // Revalidate an expired copy instead of downloading it again
+        CacheValidators validators = cache.getPlayerDataValidators(uuid);
+        if (validators != null) {
+            validators.applyTo(builder);
+        }
+
+        CompletableFuture<PlayerTierProfile> load = sendAsync(builder.build(), key, priority)
+                .thenCompose(response -> {
+                    if (response.statusCode() == 304) {
+                        PlayerTierProfile renewed = cache.renewPlayerData(uuid);
+                        if (renewed != null) {
+                            return CompletableFuture.completedFuture(renewed);
+                        }
+
+                        // The cached copy was dropped while we were waiting, so fetch it in full
+                        return sendAsync(backend.playerDataRequest(uuid).build(), key, priority)
+                                .thenApply(retry -> parsePlayerData(uuid, retry));
+                    }
+
+                    return CompletableFuture.completedFuture(parsePlayerData(uuid, response));
+                });
+
+        return cache.getPlayerDataMetrics().timeLoad(load)
+                .exceptionally(e -> {
+                    logger.error("Error fetching player data", e);
+                    return null;
+                });
+    }
+
+    private PlayerTierProfile parsePlayerData(String uuid, HttpResponse<String> response) {
+        if (response.statusCode() == 404) {
+            // Untiered or unknown player; server errors aren't cached since they say nothing about the player
+            cache.cacheMissingPlayerData(uuid);
+            return null;
+        }
+        if (response.statusCode() != 200) {
+            // Fails the load so it counts in the metrics; the caller still gets null
+            throw new UncheckedIOException(new IOException("Unexpected status code " + response.statusCode()));
         }
+
+        // Parsed once here; everything downstream reads the compact profile
+        PlayerTierProfile data = PlayerTierProfile.fromJson(GSON.fromJson(response.body(), JsonObject.class));
+
+        // Cache the result
+        cache.cachePlayerData(uuid, data, CacheValidators.from(response));
+        return data;
+    }
+
+    /**
+     * Get cached player data without going to the network
+     * Not counted in the cache metrics, so it is meant for rendering and other reads that never fetch
+     * @return The cached data, possibly stale, or null if nothing is cached
+     */
+    public PlayerTierProfile getCachedPlayerData(String uuid) {
+        return cache.peekPlayerData(uuid);
+    }
+
+    public boolean hasCachedPlayerData(String uuid) {
+        return getCachedPlayerData(uuid) != null;
+    }
+
+    /**
+     * Get told whenever a player's cached profile changes, so anything derived from an older one can be dropped
+     * @param listener Called with the player's UUID, possibly off the client thread
+     */
+    public void addPlayerDataListener(Consumer<String> listener) {
+        cache.addPlayerDataListener(listener);
+    }
+
+    /**
+     * Get a cached tier list without going to the network
+     * Not counted in the cache metrics, like getCachedPlayerData
+     * @return The cached list, possibly stale, or null if nothing is cached
+     */
+    public List<TierListEntry> getCachedTierList(String filter) {
+        return cache.peekTierList(filter);
+    }
+
+    /**
+     * Get a cached username without going to the network
+     * Not counted in the cache metrics, like getCachedPlayerData
+     * @return The username, or null if it hasn't been resolved
+     */
+    public String getCachedUsername(String uuid) {
+        return cache.peekUsername(uuid);
+    }
+
+    /**
+     * Resolve a username to its UUID, then fetch that player's data
+     * @return Future completing with the player data, or null if the player or their data was not found
+     */
+    public CompletableFuture<PlayerTierProfile> fetchPlayerDataByUsernameAsync(String username) {
+        return FutureCancellation.compose(fetchUUIDAsync(username), uuid -> uuid == null
+                ? CompletableFuture.completedFuture(null)
+                : fetchPlayerDataAsync(uuid));
+    }
+
+    /**
+     * Fetch player data from Israel Tiers API
+     * @param uuid Player UUID
+     * @param callback Callback with the fetched data and success status
+     */
+    public void fetchPlayerData(String uuid, BiConsumer<PlayerTierProfile, Boolean> callback) {
+        fetchPlayerDataAsync(uuid).thenAccept(data -> callback.accept(data, data != null));
+    }
+
+    /**
+     * Fetch tier list from Israel Tiers API for someone waiting on the result
+     * @param filter Game mode filter
+     * @return Future completing with the ranked players, or null if even the fallback failed
+     */
+    public CompletableFuture<List<TierListEntry>> fetchTierListAsync(String filter) {
+        return fetchTierListAsync(filter, RequestPriority.INTERACTIVE);
     }
 
     /**
      * Fetch tier list from Israel Tiers API
+     * Falls back to sample data if the API cannot be reached
      * @param filter Game mode filter
-     * @param callback Callback with the fetched tiers and success status
+     * @param priority How urgently the list is needed
+     * @return Future completing with the ranked players, or null if even the fallback failed
      */
-    public void fetchTierList(String filter, BiConsumer<JsonArray, Boolean> callback) {
-        // Check cache first
-        Object cachedTierList = cache.getCachedTierList(filter);
+    public CompletableFuture<List<TierListEntry>> fetchTierListAsync(String filter, RequestPriority priority) {
+        String key = "tiers:" + filter;
+
+        // Check cache first; cached lists already contain the special player
+        // A stale list is returned right away and refreshed in the background
+        List<TierListEntry> cachedTierList = cache.getCachedTierList(filter);
         if (cachedTierList != null) {
             logger.debug("Using cached tier list for filter {}", filter);
-            JsonArray tierList = (JsonArray) cachedTierList;
+            if (cache.claimTierListRefresh(filter)) {
+                logger.debug("Refreshing stale tier list for filter {} in the background", filter);
+                coalesce(key, RequestPriority.BACKGROUND, () -> requestTierList(filter, RequestPriority.BACKGROUND));
+            }
+            return CompletableFuture.completedFuture(cachedTierList);
+        }
 
-            // Always ensure our special player is in cached results too
-            ensureSpecialPlayerInTierList(tierList, filter);
+        return coalesce(key, priority, () -> FutureCancellation.compose(cache.restoreTierList(filter), restored -> restored != null
+                ? CompletableFuture.completedFuture(restored)
+                : requestTierList(filter, priority)));
+    }
 
-            callback.accept(tierList, true);
-            return;
+    private CompletableFuture<List<TierListEntry>> requestTierList(String filter, RequestPriority priority) {
+        return cache.getTierListMetrics().timeLoad(requestTierList(filter, cache.getTierListValidators(filter), priority));
+    }
+
+    /**
+     * @param validators Validators of an expired cached copy, or null for an unconditional request
+     */
+    private CompletableFuture<List<TierListEntry>> requestTierList(String filter, CacheValidators validators,
+                                                                   RequestPriority priority) {
+        HttpRequest.Builder builder = backend.tierListRequest(filter);
+
+        // Revalidate an expired copy instead of downloading and parsing it again
+        if (validators != null) {
+            validators.applyTo(builder);
         }
 
-        try {
-            // The API requires proper authentication headers
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("https://api.israeltiers.com/api/tiers?filter=" + filter))
-                    // These headers are important to pass authentication
-                    .header("accept", "application/json")
-                    .header("Origin", "https://israeltiers.com")
-                    .header("Referer", "https://israeltiers.com/" + filter)
-                    .header("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/132.0.0.0 Safari/537.36")
-                    // The website might be using cookies for authentication
-                    .header("Cookie", "connect.sid=s%3A...; other-cookies-if-needed")
-                    .GET()
-                    .timeout(Duration.ofSeconds(20))
-                    .build();
-
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        // Stream the body so the list is decoded while it downloads instead of being buffered as a string
+        return sendAsync(builder.build(), HttpResponse.BodyHandlers.ofInputStream(), "tiers:" + filter, priority)
+                .thenCompose(response -> {
+                    if (response.statusCode() == 304) {
+                        TierListDecoder.discard(response);
 
-            if (response.statusCode() == 200) {
-                JsonArray tiers = GSON.fromJson(response.body(), JsonArray.class);
+                        List<TierListEntry> renewed = cache.renewTierList(filter);
+                        if (renewed != null) {
+                            return CompletableFuture.completedFuture(renewed);
+                        }
+
+                        // The cached copy was dropped while we were waiting, so fetch it in full
+                        return requestTierList(filter, null, priority);
+                    }
 
-                // Add our special player to the tier list
-                ensureSpecialPlayerInTierList(tiers, filter);
+                    if (response.statusCode() != 200) {
+                        logger.error("Failed to fetch tier list, status code: {}, response: {}",
+                                response.statusCode(), TierListDecoder.preview(response, 100));
 
-                // Cache the result
-                cache.cacheTierList(filter, tiers);
+                        // Use fallback data instead
+                        return useFallbackTierList(filter);
+                    }
 
-                callback.accept(tiers, true);
-            } else {
-                logger.error("Failed to fetch tier list, status code: {}, response: {}",
-                        response.statusCode(), response.body().substring(0, Math.min(response.body().length(), 100)));
+                    List<TierListEntry> tiers;
+                    try {
+                        tiers = TierListDecoder.decode(TierListDecoder.openBody(response), filter);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+
+                    // The list names most of its players, which saves a Mojang lookup for each of them later
+                    for (TierListEntry entry : tiers) {
+                        cache.seedUsername(entry.getUuid(), entry.getUsername(), false);
+                    }
+
+                    // Add our special player to the tier list, then cache the result and report what changed
+                    CacheValidators responseValidators = CacheValidators.from(response);
+                    return withSpecialPlayer(tiers, filter).thenApply(result -> {
+                        List<TierListEntry> previous = cache.peekTierList(filter);
+                        cache.cacheTierList(filter, result, responseValidators);
+                        publishTierChanges(filter, previous, result);
+                        return result;
+                    });
+                })
+                .exceptionallyCompose(e -> {
+                    logger.error("Error fetching tier list", e);
+                    // Use fallback data on exception
+                    return useFallbackTierList(filter);
+                });
+    }
+
+    /**
+     * Revalidate a tier list with the server even if the cached copy is still fresh
+     * Differences from the cached copy are reported to tier change listeners
+     * @param filter Game mode filter
+     * @return Future completing with the current tier list
+     */
+    public CompletableFuture<List<TierListEntry>> refreshTierListAsync(String filter) {
+        return coalesce("tiers:" + filter, RequestPriority.INTERACTIVE,
+                () -> requestTierList(filter, RequestPriority.INTERACTIVE));
+    }
+
+    public void addTierChangeListener(TierChangeListener listener) {
+        tierChangeListeners.add(listener);
+    }
+
+    public void removeTierChangeListener(TierChangeListener listener) {
+        tierChangeListeners.remove(listener);
+    }
+
+    /**
+     * Diff a freshly downloaded tier list against the one it replaces and notify listeners
+     */
+    private void publishTierChanges(String filter, List<TierListEntry> previous, List<TierListEntry> current) {
+        if (previous == null) {
+            return;
+        }
 
-                // Use fallback data instead
-                useFallbackTierList(filter, callback);
+        List<TierChangeEvent> changes = TierListDiff.compute(previous, current, this::getPointsForTier);
+        if (changes.isEmpty()) {
+            return;
+        }
+        logger.debug("Tier list for {} changed for {} players", filter, changes.size());
+
+        // Cached profiles of players who moved or left no longer match the list, and players who joined it now have one
+        // Invalidating also drops the nametags derived from those profiles
+        for (TierChangeEvent change : changes) {
+            cache.invalidatePlayerData(change.getUuid());
+        }
+
+        for (TierChangeListener listener : tierChangeListeners) {
+            try {
+                listener.onTierChanges(filter, changes);
+            } catch (Exception e) {
+                logger.error("Error in tier change listener", e);
             }
-        } catch (Exception e) {
-            logger.error("Error fetching tier list", e);
-            // Use fallback data on exception
-            useFallbackTierList(filter, callback);
         }
     }
 
+    /**
+     * Fetch tier list from Israel Tiers API
+     * @param filter Game mode filter
+     * @param callback Callback with the fetched tiers and success status
+     */
+    public void fetchTierList(String filter, BiConsumer<List<TierListEntry>, Boolean> callback) {
+        fetchTierListAsync(filter).thenAccept(tiers -> callback.accept(tiers, tiers != null));
+    }
+
+    private CompletableFuture<List<TierListEntry>> useFallbackTierList(String filter) {
+        // Real data that is merely stale beats sample data
+        List<TierListEntry> staleTierList = cache.peekTierList(filter);
+        if (staleTierList != null) {
+            logger.info("Keeping stale tier list for {} after a failed refresh", filter);
+            return CompletableFuture.completedFuture(staleTierList);
+        }
 
-    private void useFallbackTierList(String filter, BiConsumer<JsonArray, Boolean> callback) {
         try {
             // Create a sample tier list with 10 players
-            JsonArray fallbackTiers = new JsonArray();
+            List<TierListEntry> fallbackTiers = new ArrayList<>();
             String[] tiers = {"HT1", "LT1", "HT2", "LT2", "HT3", "LT3", "HT4", "LT4", "HT5", "LT5"};
             String[] names = {"TopPlayer", "ProGamer", "LitPlayer", "CoolUser",
                     "AwesomeJoe", "GamerPro", "MCLegend", "DiamondHunter",
                     "FortressFinder", "NetheriteMiner"};
+            String now = String.valueOf(System.currentTimeMillis() / 1000);
 
             for (int i = 0; i < 10; i++) {
-                JsonObject player = new JsonObject();
                 // Use fixed UUIDs for fallback data
-                player.addProperty("minecraftUUID", "fallback-uuid-" + i);
-                player.addProperty("username", names[i]);
-
-                // Create tier data for the specific filter
-                JsonArray filterArray = new JsonArray();
-                JsonObject tierData = new JsonObject();
-                tierData.addProperty("tier", tiers[i % tiers.length]);
-                tierData.addProperty("lastupdate", String.valueOf(System.currentTimeMillis() / 1000));
-                filterArray.add(tierData);
-                player.add(filter, filterArray);
-
-                fallbackTiers.add(player);
+                fallbackTiers.add(new TierListEntry("fallback-uuid-" + i, names[i], tiers[i % tiers.length], now));
             }
 
-            // Add our special player too
-            ensureSpecialPlayerInTierList(fallbackTiers, filter);
-
-            // Cache this fallback data
-            cache.cacheTierList(filter, fallbackTiers);
-
-            logger.info("Using fallback tier list data for {}", filter);
-            callback.accept(fallbackTiers, true);
+            // Add our special player too; the sample data only answers this call and is never cached,
+            // so the next request tries the API again and fake UUIDs never reach the disk cache
+            return withSpecialPlayer(fallbackTiers, filter).thenApply(result -> {
+                logger.info("Using fallback tier list data for {}", filter);
+                return result;
+            });
         } catch (Exception e) {
             logger.error("Error creating fallback tier list", e);
-            callback.accept(null, false);
+            return CompletableFuture.completedFuture(null);
         }
     }
 
     /**
-     * Ensure special player is in the tier list
-     * This is the simplest approach - just add them at the beginning
+     * Ensure the special player is in the tier list, resolving their username only when they must be added
+     * @return A read-only copy of the list with the special player first
      */
-    private void ensureSpecialPlayerInTierList(JsonArray tiers, String filter) {
-        try {
-            // First check if player already exists - if so, update their tier
-            for (int i = 0; i < tiers.size(); i++) {
-                JsonObject player = tiers.get(i).getAsJsonObject();
-                if (player.has("minecraftUUID") &&
-                        SPECIAL_UUID.equalsIgnoreCase(player.get("minecraftUUID").getAsString())) {
-
-                    // Player exists - make sure they have LT69 tier
-                    updatePlayerTierToLT69(player, filter);
-
-                    // If they're not at index 0, we need to create a new list
-                    if (i > 0) {
-                        // Get username
-                        String username = player.has("username") ?
-                                player.get("username").getAsString() : "SpecialPlayer";
-
-                        // Remove from current position by creating new array
-                        JsonArray newTiers = new JsonArray();
-
-                        // Add special player first
-                        newTiers.add(player);
-
-                        // Then add all other players
-                        for (int j = 0; j < tiers.size(); j++) {
-                            if (j != i) { // Skip the player we already added
-                                newTiers.add(tiers.get(j));
-                            }
-                        }
-
-                        // Replace the original tier list by modifying each index
-                        for (int j = 0; j < tiers.size(); j++) {
-                            if (j < newTiers.size()) {
-                                // Replace with new element
-                                tiers.set(j, newTiers.get(j));
-                            }
-                        }
-                    }
-
-                    return;
-                }
-            }
-
-            // Player doesn't exist - create and add at beginning
-            String username;
-            try {
-                username = fetchUsernameFromUUID(SPECIAL_UUID);
-            } catch (Exception e) {
-                logger.error("Error fetching username for special UUID", e);
-                username = "SpecialPlayer";
-            }
-
-            // Create player object
-            JsonObject specialPlayer = new JsonObject();
-            specialPlayer.addProperty("minecraftUUID", SPECIAL_UUID);
-            specialPlayer.addProperty("username", username);
-
-            // Add tier data
-            JsonArray filterArray = new JsonArray();
-            JsonObject tierData = new JsonObject();
-            tierData.addProperty("tier", "LT69");
-            tierData.addProperty("lastupdate", String.valueOf(System.currentTimeMillis() / 1000));
-            filterArray.add(tierData);
-            specialPlayer.add(filter, filterArray);
-
-            // Create new array with special player at the beginning
-            JsonArray newTiers = new JsonArray();
-            newTiers.add(specialPlayer);
-
-            // Add all existing players
-            for (int i = 0; i < tiers.size(); i++) {
-                newTiers.add(tiers.get(i));
+    private CompletableFuture<List<TierListEntry>> withSpecialPlayer(List<TierListEntry> tiers, String filter) {
+        for (TierListEntry entry : tiers) {
+            if (SPECIAL_UUID.equalsIgnoreCase(entry.getUuid())) {
+                return CompletableFuture.completedFuture(ensureSpecialPlayerInTierList(tiers, filter, entry.getUsername()));
             }
+        }
 
-            // Replace the original tier list content
-            // First, ensure we have the right number of elements
-            while (tiers.size() < newTiers.size()) {
-                // Add dummy elements if needed to make the arrays the same size
-                tiers.add(new JsonObject());
-            }
+        return fetchUsernameFromUUIDAsync(SPECIAL_UUID)
+                .exceptionally(e -> {
+                    logger.error("Error fetching username for special UUID", e);
+                    return "SpecialPlayer";
+                })
+                .thenApply(username -> ensureSpecialPlayerInTierList(tiers, filter, username));
+    }
 
-            // Now replace each element
-            for (int i = 0; i < newTiers.size(); i++) {
-                tiers.set(i, newTiers.get(i));
+    /**
+     * Ensure special player is in the tier list
+     * This is the simplest approach - just put them at the beginning with LT69
+     * @param username Name to show for the special player
+     */
+    private List<TierListEntry> ensureSpecialPlayerInTierList(List<TierListEntry> tiers, String filter, String username) {
+        List<TierListEntry> result = new ArrayList<>(tiers.size() + 1);
+        result.add(new TierListEntry(SPECIAL_UUID, username != null ? username : "SpecialPlayer",
+                "LT69", String.valueOf(System.currentTimeMillis() / 1000)));
+
+        boolean existed = false;
+        for (TierListEntry entry : tiers) {
+            if (SPECIAL_UUID.equalsIgnoreCase(entry.getUuid())) {
+                existed = true;
+            } else {
+                result.add(entry);
             }
+        }
 
+        if (!existed) {
             logger.info("Added special player to {} tier list", filter);
-        } catch (Exception e) {
-            logger.error("Error adding special player to tier list", e);
         }
+        return List.copyOf(result);
     }
 
     /**
-     * Update a player's tier to LT69
+     * Block on a future, unwrapping the cause so callers see the original exception
      */
-    private void updatePlayerTierToLT69(JsonObject player, String filter) {
+    private static <T> T await(CompletableFuture<T> future) throws Exception {
         try {
-            // Check if player has the requested filter
-            if (!player.has(filter) || !player.get(filter).isJsonArray()) {
-                // Create new filter array
-                JsonArray filterArray = new JsonArray();
-                JsonObject tierData = new JsonObject();
-                tierData.addProperty("tier", "LT69");
-                tierData.addProperty("lastupdate", String.valueOf(System.currentTimeMillis() / 1000));
-                filterArray.add(tierData);
-                player.add(filter, filterArray);
-            } else {
-                // Update existing filter array
-                JsonArray filterArray = player.getAsJsonArray(filter);
-                if (filterArray.size() > 0) {
-                    JsonObject tierData = filterArray.get(0).getAsJsonObject();
-                    tierData.addProperty("tier", "LT69");
-                } else {
-                    // Array exists but is empty
-                    JsonObject tierData = new JsonObject();
-                    tierData.addProperty("tier", "LT69");
-                    tierData.addProperty("lastupdate", String.valueOf(System.currentTimeMillis() / 1000));
-                    filterArray.add(tierData);
-                }
-            }
-        } catch (Exception e) {
-            logger.error("Error updating player tier", e);
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
         }
     }
 
@@ -452,13 +677,71 @@ public class IsrealTiersApiService {
         cache.clearAllCaches();
     }
 
+    /**
+     * Open connections to the API hosts in the background so the first lookup doesn't pay for setup
+     */
+    public void warmUpConnections() {
+        connectionWarmer.warmUp();
+    }
+
+    /**
+     * Keep connections to the API hosts open until stopKeepingConnectionsWarm, e.g. while connected to a server
+     */
+    public void keepConnectionsWarm() {
+        connectionWarmer.keepWarm();
+    }
+
+    public void stopKeepingConnectionsWarm() {
+        connectionWarmer.stopKeepingWarm();
+    }
+
+    /**
+     * Release network resources and finish writing the disk cache when the game is closing
+     * Must run before the mod's executors shut down, since queued disk writes run on them
+     */
+    public void shutdown() {
+        logger.info("Shutting down API service");
+        connectionWarmer.stopKeepingWarm();
+        cache.stopExpirySweeper();
+        // Stop responses from arriving first, so nothing is queued for the disk after the flush
+        httpClient.shutdown();
+        cache.flush();
+    }
+
+    /**
+     * Get lookup and load metrics for every cache region
+     */
+    public List<CacheMetrics> getCacheMetrics() {
+        return cache.getAllMetrics();
+    }
+
+    public CacheMetrics getPlayerDataCacheMetrics() {
+        return cache.getPlayerDataMetrics();
+    }
+
+    public CacheMetrics getTierListCacheMetrics() {
+        return cache.getTierListMetrics();
+    }
+
+    /**
+     * Start counting cache metrics from zero, e.g. after changing cache durations
+     */
+    public void resetCacheMetrics() {
+        cache.getAllMetrics().forEach(CacheMetrics::reset);
+    }
+
     public String getCacheStats() {
-        return cache.getStatistics();
+        return cache.getStatistics() + String.format(", InFlight=%d, Scheduler: %s, Executor: %s, Endpoints: %s",
+                inFlight.size(), scheduler.getStatus(), ModExecutors.getStatus(), httpClient.getStatus());
     }
 
     /**
      * Format Unix timestamp to human-readable date
      */
+    public String formatUnixTimestamp(long unixTime) {
+        return formatUnixTimestamp(String.valueOf(unixTime));
+    }
+
     public String formatUnixTimestamp(String timestamp) {
         try {
             long unixTime = Long.parseLong(timestamp);
@@ -1,7 +1,5 @@
 package com.example.tag;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import net.dv8tion.jda.api.JDA;
 import net.fabricmc.api.ClientModInitializer;
@@ -9,8 +7,10 @@ import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
 import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.fabricmc.fabric.api.client.keybinding.v1.KeyBindingHelper;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.option.KeyBinding;
 import net.minecraft.client.util.InputUtil;
@@ -20,6 +20,10 @@ import org.lwjgl.glfw.GLFW;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 import static net.fabricmc.fabric.api.client.command.v2.ClientCommandManager.argument;
 import static net.fabricmc.fabric.api.client.command.v2.ClientCommandManager.literal;
 
@@ -42,6 +46,11 @@ public class IstiertaggerClient implements ClientModInitializer {
 
 	private TierDisplayManager tierDisplayManager;
 	private PlayerHistoryTracker historyTracker;
+	private OnlinePlayerTracker onlinePlayerTracker;
+	private TierPrefetcher tierPrefetcher;
+
+	// Local stand-in for the APIs, only started with -Distagger.fakeBackend=true
+	private FakeTierDataServer fakeServer;
 
 
 	@Override
@@ -54,10 +63,26 @@ public class IstiertaggerClient implements ClientModInitializer {
 		// Load config
 		ModConfig config = ModConfig.getInstance();
 
+		// Initialize the API service first; every screen and manager shares it and its cache
+		TierDataBackend backend = createBackend();
+		// Responses from the fake backend must not end up in the persistent cache
+		DiskCache diskCache = fakeServer == null && ModConfig.getInstance().isPersistentCache()
+				? DiskCache.inConfigDir(LOGGER)
+				: null;
+		this.apiService = new IsrealTiersApiService(LOGGER, backend, diskCache);
+		this.apiService.warmUpConnections();
+
 		// Initialize history tracker
 		this.historyTracker = new PlayerHistoryTracker(LOGGER);
 		TierScreen.setHistoryTracker(this.historyTracker);
 
+		// Names from tracked history may be outdated, so they only fill gaps in the username cache
+		Map<String, String> trackedNames = new HashMap<>();
+		for (PlayerHistoryTracker.PlayerHistory history : this.historyTracker.getTrackedPlayers()) {
+			trackedNames.put(history.getUuid(), history.getUsername());
+		}
+		this.apiService.rememberUsernames(trackedNames, false);
+
 		// Initialize theme manager
 		ThemeManager themeManager = ThemeManager.getInstance();
 		LOGGER.info("Initialized theme manager with {} themes", themeManager.getThemes().size());
@@ -67,12 +92,31 @@ public class IstiertaggerClient implements ClientModInitializer {
 		LOGGER.info("Initialized context menu handler");
 
 		// Initialize services
-		this.apiService = new IsrealTiersApiService(LOGGER);
-		this.uiManager = new TierUIManager(LOGGER);
+		this.uiManager = new TierUIManager(LOGGER, this.apiService);
 
 		// Initialize tier display manager
 		this.tierDisplayManager = new TierDisplayManager(LOGGER, this.historyTracker, this.apiService);
 
+		// Prefetch tiers for players joining the server so their nametags are ready
+		this.onlinePlayerTracker = new OnlinePlayerTracker();
+		// Lookups of players on the server or in history never need Mojang
+		this.apiService.getIdentityResolver().setOnlinePlayers(this.onlinePlayerTracker);
+		this.apiService.getIdentityResolver().setHistoryTracker(this.historyTracker);
+		this.tierPrefetcher = new TierPrefetcher(this.apiService, LOGGER);
+		this.onlinePlayerTracker.addJoinListener(this.tierPrefetcher::onPlayersJoined);
+		// Players whose tiers changed lose their cached profile, so fetch the ones on this server again
+		this.apiService.addTierChangeListener(this.tierPrefetcher::onTierChanges);
+		// The server's player list always has current names
+		this.onlinePlayerTracker.addJoinListener(joined -> this.apiService.rememberUsernames(joined, true));
+		ClientTickEvents.END_CLIENT_TICK.register(this.onlinePlayerTracker::tick);
+		// Nametags and commands can ask for tiers at any moment on a server, so keep the API connections open meanwhile
+		ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> apiService.keepConnectionsWarm());
+		ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> {
+			onlinePlayerTracker.clear();
+			tierPrefetcher.clear();
+			apiService.stopKeepingConnectionsWarm();
+		});
+
 		// Check if Discord classes are available
 		try {
 			Class.forName("net.dv8tion.jda.api.JDABuilder");
@@ -101,6 +145,15 @@ public class IstiertaggerClient implements ClientModInitializer {
 		// Register keybinding
 		registerKeybinding();
 
+		// Release the shared HTTP client and finish disk cache writes before the executors stop
+		ClientLifecycleEvents.CLIENT_STOPPING.register(client -> {
+			apiService.shutdown();
+			if (fakeServer != null) {
+				fakeServer.stop();
+			}
+			ModExecutors.shutdown();
+		});
+
 		// Add command for directly opening GUI
 		ClientCommandRegistrationCallback.EVENT.register((dispatcher, registryAccess) -> {
 			dispatcher.register(literal("istaggergui")
@@ -121,6 +174,22 @@ public class IstiertaggerClient implements ClientModInitializer {
 			);
 		});
 
+		// Add command for cache metrics, used to tune the cache durations
+		ClientCommandRegistrationCallback.EVENT.register((dispatcher, registryAccess) -> {
+			dispatcher.register(literal("istaggerstats")
+					.executes(context -> {
+						uiManager.displayCacheMetrics(context.getSource());
+						return 1;
+					})
+					.then(literal("reset")
+							.executes(context -> {
+								apiService.resetCacheMetrics();
+								context.getSource().sendFeedback(uiManager.createFeedbackMessage("§aCache metrics reset"));
+								return 1;
+							}))
+			);
+		});
+
 		// Add command for player comparison
 		ClientCommandRegistrationCallback.EVENT.register((dispatcher, registryAccess) -> {
 			dispatcher.register(literal("istaggercompare")
@@ -169,6 +238,22 @@ public class IstiertaggerClient implements ClientModInitializer {
 		});
 	}
 
+	/**
+	 * Pick the tier data backend: the live APIs, or the in-process fake server for offline testing
+	 */
+	private TierDataBackend createBackend() {
+		if (FakeTierDataServer.isEnabled()) {
+			try {
+				fakeServer = FakeTierDataServer.fromSystemProperties(LOGGER);
+				fakeServer.start();
+				return fakeServer.getBackend();
+			} catch (Exception e) {
+				LOGGER.error("Failed to start fake tier data server, using the live APIs", e);
+			}
+		}
+		return HttpTierDataBackend.israelTiers();
+	}
+
 	/**
 	 * Get the singleton instance
 	 */
@@ -300,7 +385,7 @@ public class IstiertaggerClient implements ClientModInitializer {
 			String username = player.getName().getString();
 
 			// Get emoji for this player
-			Text tierEmoji = TierDisplayManager.getPlayerTierEmoji(uuid, username);
+			Text tierEmoji = tierDisplayManager.getPlayerTierEmoji(uuid, username);
 
 			// If no emoji available, return original name
 			if (tierEmoji.getString().isEmpty()) {
@@ -346,7 +431,7 @@ public class IstiertaggerClient implements ClientModInitializer {
 			String username = player.getName().getString();
 
 			// Get emoji for this player
-			Text tierEmoji = TierDisplayManager.getPlayerTierEmoji(uuid, username);
+			Text tierEmoji = tierDisplayManager.getPlayerTierEmoji(uuid, username);
 
 			// If no emoji available, return original name
 			if (tierEmoji.getString().isEmpty()) {
@@ -372,6 +457,17 @@ public class IstiertaggerClient implements ClientModInitializer {
 		return historyTracker;
 	}
 
+	public OnlinePlayerTracker getOnlinePlayerTracker() {
+		return onlinePlayerTracker;
+	}
+
+	/**
+	 * Get the API service shared by all screens and managers
+	 */
+	public IsrealTiersApiService getApiService() {
+		return apiService;
+	}
+
 	/**
 	 * Register essential commands for API interaction
 	 */
@@ -397,32 +493,8 @@ public class IstiertaggerClient implements ClientModInitializer {
 
 								source.sendFeedback(uiManager.createFeedbackMessage("Looking up data for " + username + "..."));
 
-								// Run in a separate thread to avoid blocking the main thread
-								new Thread(() -> {
-									try {
-										String uuid = apiService.fetchUUID(username);
-										if (uuid == null) {
-											source.sendFeedback(uiManager.createFeedbackMessage("Could not find player: " + username));
-											return;
-										}
-
-										apiService.fetchPlayerData(uuid, (data, success) -> {
-											if (success) {
-												// Record player data if history tracking is enabled
-												if (ModConfig.getInstance().isTrackPlayerHistory()) {
-													historyTracker.recordPlayerData(uuid, username, data);
-												}
-
-												uiManager.displayPlayerData(source, username, data, null);
-											} else {
-												uiManager.openInBrowser(username, source);
-											}
-										});
-									} catch (Exception e) {
-										LOGGER.error("Error in player lookup", e);
-										source.sendFeedback(uiManager.createFeedbackMessage("Failed to look up player: " + e.getMessage()));
-									}
-								}, "PlayerLookup-Thread").start();
+								// Resolve asynchronously to avoid blocking the main thread
+								lookupPlayer(source, username, null);
 
 								return 1;
 							})
@@ -436,26 +508,7 @@ public class IstiertaggerClient implements ClientModInitializer {
 											source.sendFeedback(uiManager.createFeedbackMessage(
 													"Looking up data for " + username + " (" + filter + " only)..."));
 
-											new Thread(() -> {
-												try {
-													String uuid = apiService.fetchUUID(username);
-													if (uuid == null) {
-														source.sendFeedback(uiManager.createFeedbackMessage("Could not find player: " + username));
-														return;
-													}
-
-													apiService.fetchPlayerData(uuid, (data, success) -> {
-														if (success) {
-															uiManager.displayPlayerData(source, username, data, filter);
-														} else {
-															uiManager.openInBrowser(username, source);
-														}
-													});
-												} catch (Exception e) {
-													LOGGER.error("Error in player lookup", e);
-													source.sendFeedback(uiManager.createFeedbackMessage("Failed to look up player: " + e.getMessage()));
-												}
-											}, "PlayerLookup-Thread").start();
+											lookupPlayer(source, username, filter);
 										} else {
 											source.sendFeedback(uiManager.createFeedbackMessage(
 													"§cInvalid filter. Valid options: crystal, sword, uhc, pot, smp"));
@@ -475,22 +528,20 @@ public class IstiertaggerClient implements ClientModInitializer {
 								if (isValidFilter(filter)) {
 									source.sendFeedback(uiManager.createFeedbackMessage("Fetching " + filter + " tier list..."));
 
-									new Thread(() -> {
-										try {
-											apiService.fetchTierList(filter, (tiers, success) -> {
-												if (success) {
-													uiManager.displayTierList(source, filter, tiers, apiService);
+									apiService.fetchTierListAsync(filter).whenComplete((tiers, error) ->
+											// Chat feedback has to be sent from the client thread
+											MinecraftClient.getInstance().execute(() -> {
+												if (error != null) {
+													LOGGER.error("Error fetching tier list", error);
+													source.sendFeedback(uiManager.createFeedbackMessage(
+															"§cError fetching tier list: " + error.getMessage()));
+												} else if (tiers != null) {
+													uiManager.displayTierList(source, filter, tiers);
 												} else {
 													source.sendFeedback(uiManager.createFeedbackMessage(
 															"§cFailed to fetch tier list."));
 												}
-											});
-										} catch (Exception e) {
-											LOGGER.error("Error fetching tier list", e);
-											source.sendFeedback(uiManager.createFeedbackMessage(
-													"§cError fetching tier list: " + e.getMessage()));
-										}
-									}, "TierList-Thread").start();
+											}));
 								} else {
 									source.sendFeedback(uiManager.createFeedbackMessage(
 											"§cInvalid filter. Valid options: crystal, sword, uhc, pot, smp"));
@@ -511,15 +562,7 @@ public class IstiertaggerClient implements ClientModInitializer {
 										source.sendFeedback(uiManager.createFeedbackMessage(
 												"Comparing " + player1 + " and " + player2 + "..."));
 
-										new Thread(() -> {
-											try {
-												comparePlayersInChat(source, player1, player2);
-											} catch (Exception e) {
-												LOGGER.error("Error comparing players", e);
-												source.sendFeedback(uiManager.createFeedbackMessage(
-														"§cError comparing players: " + e.getMessage()));
-											}
-										}, "PlayerComparison-Thread").start();
+										comparePlayersInChat(source, player1, player2);
 
 										return 1;
 									})
@@ -529,69 +572,83 @@ public class IstiertaggerClient implements ClientModInitializer {
 	}
 
 	/**
-	 * Compare players and display results in chat
+	 * Look up a player and display their data in chat
+	 * @param filter Game mode to show, or null for all modes
 	 */
-	private void comparePlayersInChat(FabricClientCommandSource source, String player1, String player2) {
-		try {
-			// Fetch UUIDs
-			String uuid1 = apiService.fetchUUID(player1);
-			String uuid2 = apiService.fetchUUID(player2);
-
-			if (uuid1 == null || uuid2 == null) {
-				source.sendFeedback(uiManager.createFeedbackMessage(
-						"§cCould not find one or both players."));
-				return;
-			}
+	private void lookupPlayer(FabricClientCommandSource source, String username, String filter) {
+		MinecraftClient client = MinecraftClient.getInstance();
+		apiService.fetchUUIDAsync(username)
+				.thenCompose(uuid -> {
+					if (uuid == null) {
+						client.execute(() -> source.sendFeedback(uiManager.createFeedbackMessage("Could not find player: " + username)));
+						return CompletableFuture.completedFuture(null);
+					}
 
-			// Fetch player data
-			apiService.fetchPlayerData(uuid1, (data1, success1) -> {
-				if (!success1) {
-					source.sendFeedback(uiManager.createFeedbackMessage(
-							"§cCould not fetch data for " + player1));
-					return;
-				}
+					return apiService.fetchPlayerDataAsync(uuid).thenAccept(data -> {
+						if (data != null) {
+							// Record player data if history tracking is enabled
+							if (filter == null && ModConfig.getInstance().isTrackPlayerHistory()) {
+								historyTracker.recordPlayerData(uuid, username, data);
+							}
+
+							client.execute(() -> uiManager.displayPlayerData(source, username, data, filter));
+						} else {
+							client.execute(() -> uiManager.openInBrowser(username, source));
+						}
+					});
+				})
+				.exceptionally(e -> {
+					LOGGER.error("Error in player lookup", e);
+					client.execute(() -> source.sendFeedback(uiManager.createFeedbackMessage("Failed to look up player: " + e.getMessage())));
+					return null;
+				});
+	}
 
-				apiService.fetchPlayerData(uuid2, (data2, success2) -> {
-					if (!success2) {
+	/**
+	 * Compare players and display results in chat
+	 */
+	private void comparePlayersInChat(FabricClientCommandSource source, String player1, String player2) {
+		// Resolve both players concurrently
+		CompletableFuture<PlayerTierProfile> data1 = apiService.fetchPlayerDataByUsernameAsync(player1);
+		CompletableFuture<PlayerTierProfile> data2 = apiService.fetchPlayerDataByUsernameAsync(player2);
+
+		CompletableFuture.allOf(data1, data2).whenComplete((ignored, error) ->
+				// Chat feedback has to be sent from the client thread
+				MinecraftClient.getInstance().execute(() -> {
+					if (error != null) {
+						LOGGER.error("Error in player comparison", error);
 						source.sendFeedback(uiManager.createFeedbackMessage(
-								"§cCould not fetch data for " + player2));
+								"§cError comparing players: " + error.getMessage()));
 						return;
 					}
 
-					// Both players data fetched successfully - display comparison
-					displayPlayerComparison(source, player1, player2, data1, data2);
-				});
-			});
-		} catch (Exception e) {
-			LOGGER.error("Error in player comparison", e);
-			source.sendFeedback(uiManager.createFeedbackMessage(
-					"§cError comparing players: " + e.getMessage()));
-		}
+					PlayerTierProfile first = data1.join();
+					PlayerTierProfile second = data2.join();
+					if (first == null) {
+						source.sendFeedback(uiManager.createFeedbackMessage(
+								"§cCould not fetch data for " + player1));
+					} else if (second == null) {
+						source.sendFeedback(uiManager.createFeedbackMessage(
+								"§cCould not fetch data for " + player2));
+					} else {
+						// Both players data fetched successfully - display comparison
+						displayPlayerComparison(source, player1, player2, first, second);
+					}
+				}));
 	}
 
 	/**
 	 * Display player comparison in chat
 	 */
 	private void displayPlayerComparison(FabricClientCommandSource source, String player1, String player2,
-										 JsonObject data1, JsonObject data2) {
+										 PlayerTierProfile data1, PlayerTierProfile data2) {
 		try {
-			// Extract userData
-			JsonObject userData1 = data1.get("userData").getAsJsonObject();
-			JsonObject userData2 = data2.get("userData").getAsJsonObject();
-
-			// Parse stats
-			JsonArray stats1 = userData1.getAsJsonArray("stats");
-			JsonArray stats2 = userData2.getAsJsonArray("stats");
-
-			if (stats1.isEmpty() || stats2.isEmpty()) {
+			if (!data1.hasAnyTier() || !data2.hasAnyTier()) {
 				source.sendFeedback(uiManager.createFeedbackMessage(
 						"§cNo stats available for one or both players."));
 				return;
 			}
 
-			JsonObject gameStats1 = stats1.get(0).getAsJsonObject();
-			JsonObject gameStats2 = stats2.get(0).getAsJsonObject();
-
 			// Display header
 			source.sendFeedback(Text.literal("§6=== Player Comparison: " + player1 + " vs " + player2 + " ==="));
 
@@ -600,17 +657,15 @@ public class IstiertaggerClient implements ClientModInitializer {
 			int totalPoints2 = 0;
 
 			// Compare each game mode
-			for (String gameMode : new String[]{"crystal", "sword", "uhc", "pot", "smp"}) {
+			for (String gameMode : PlayerTierProfile.GAME_MODES) {
 				String gameModeDisplay = gameMode.substring(0, 1).toUpperCase() + gameMode.substring(1);
 
 				// Get player 1 tier and points
 				String tier1 = "N/A";
 				int points1 = 0;
 
-				JsonArray modeStats1 = gameStats1.has(gameMode) ? gameStats1.getAsJsonArray(gameMode) : null;
-				if (modeStats1 != null && !modeStats1.isEmpty()) {
-					JsonObject stat = modeStats1.get(0).getAsJsonObject();
-					tier1 = stat.has("tier") ? stat.get("tier").getAsString() : "N/A";
+				if (data1.hasStats(gameMode)) {
+					tier1 = data1.getTier(gameMode) != null ? data1.getTier(gameMode) : "N/A";
 					points1 = apiService.getPointsForTier(tier1);
 					totalPoints1 += points1;
 				}
@@ -619,10 +674,8 @@ public class IstiertaggerClient implements ClientModInitializer {
 				String tier2 = "N/A";
 				int points2 = 0;
 
-				JsonArray modeStats2 = gameStats2.has(gameMode) ? gameStats2.getAsJsonArray(gameMode) : null;
-				if (modeStats2 != null && !modeStats2.isEmpty()) {
-					JsonObject stat = modeStats2.get(0).getAsJsonObject();
-					tier2 = stat.has("tier") ? stat.get("tier").getAsString() : "N/A";
+				if (data2.hasStats(gameMode)) {
+					tier2 = data2.getTier(gameMode) != null ? data2.getTier(gameMode) : "N/A";
 					points2 = apiService.getPointsForTier(tier2);
 					totalPoints2 += points2;
 				}
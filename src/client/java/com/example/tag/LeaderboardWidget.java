@@ -1,9 +1,6 @@
 package com.example.tag;
 
 import com.example.tag.fix.DirectTextRenderer;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
-import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.DrawContext;
 import net.minecraft.client.gui.widget.ButtonWidget;
 import net.minecraft.text.Text;
@@ -39,6 +36,13 @@ public class LeaderboardWidget {
     private boolean isLoading = false;
     private boolean isVisible = true;
 
+    // Keeps the entries in sync with tier list refreshes without rebuilding them
+    private final TierChangeListener changeListener = this::onTierChanges;
+
+    // Everything this widget is waiting for; the load scope is replaced on every tab change
+    private RequestScope loadScope = new RequestScope();
+    private final RequestScope updateScope = new RequestScope();
+
     // UI elements
     private ButtonWidget refreshButton;
     private ButtonWidget closeButton;
@@ -52,7 +56,7 @@ public class LeaderboardWidget {
         // Initialize buttons
         this.refreshButton = ButtonWidget.builder(
                 Text.literal("↻"),
-                button -> loadData()
+                button -> refresh()
         ).dimensions(x + WIDTH - 40, y + 5, 15, 15).build();
 
         this.closeButton = ButtonWidget.builder(
@@ -60,57 +64,173 @@ public class LeaderboardWidget {
                 button -> this.isVisible = false
         ).dimensions(x + WIDTH - 20, y + 5, 15, 15).build();
 
-        // Load data immediately
+        // Load data immediately, then follow changes
         loadData();
+        apiService.addTierChangeListener(changeListener);
+    }
+
+    /**
+     * Stop following tier list changes and drop pending requests; call when the owning screen goes away
+     */
+    public void dispose() {
+        apiService.removeTierChangeListener(changeListener);
+        loadScope.cancel();
+        updateScope.cancel();
+    }
+
+    /**
+     * Ask the server whether the list changed; changes arrive through the tier change listener
+     */
+    private void refresh() {
+        if (entries.isEmpty()) {
+            loadData();
+            return;
+        }
+
+        updateScope.track(apiService.refreshTierListAsync(gameMode)).exceptionally(e -> {
+            if (!updateScope.isCancelled()) {
+                LOGGER.error("Error refreshing tier list", e);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Apply tier list changes to the current entries
+     * Only the players that changed are touched, so a refresh costs work proportional to the changes
+     */
+    private void onTierChanges(String filter, List<TierChangeEvent> changes) {
+        if (!filter.equals(gameMode)) {
+            return;
+        }
+
+        // Only players joining the list need a username lookup
+        List<TierListEntry> added = new ArrayList<>();
+        for (TierChangeEvent change : changes) {
+            if (change.getType() == TierChangeEvent.Type.ADDED) {
+                added.add(change.getCurrent());
+            }
+        }
+
+        updateScope.track(apiService.fetchUsernamesForTierListAsync(added)).whenComplete((names, error) -> {
+            if (error != null && !updateScope.isCancelled()) {
+                LOGGER.error("Error resolving usernames for tier list changes", error);
+            }
+
+            updateScope.runOnClient(() -> {
+                // A full load for another mode may have started in the meantime
+                if (isLoading || !filter.equals(gameMode)) {
+                    return;
+                }
+
+                List<LeaderboardEntry> updated = new ArrayList<>(entries);
+                for (TierChangeEvent change : changes) {
+                    TierListEntry previous = change.getPrevious();
+                    TierListEntry current = change.getCurrent();
+                    String uuid = change.getUuid();
+                    String username = null;
+
+                    if (previous != null) {
+                        int index = indexOf(updated, uuid, apiService.getPointsForTier(previous.getTier()));
+                        if (index >= 0) {
+                            username = updated.remove(index).getUsername();
+                        }
+                    }
+
+                    if (current != null) {
+                        if (username == null) {
+                            username = names != null ? names.getOrDefault(uuid, uuid) : uuid;
+                        }
+                        int points = apiService.getPointsForTier(current.getTier());
+                        updated.add(insertionIndex(updated, points), new LeaderboardEntry(uuid, username, current.getTier(), points));
+                    }
+                }
+                entries = updated;
+            });
+        });
+    }
+
+    /**
+     * Find a player in the list sorted by points (highest first)
+     * @return Index, or -1 if they aren't in the list
+     */
+    private static int indexOf(List<LeaderboardEntry> sorted, String uuid, int points) {
+        for (int i = insertionIndex(sorted, points + 1); i < sorted.size() && sorted.get(i).getPoints() == points; i++) {
+            if (sorted.get(i).getUuid().equalsIgnoreCase(uuid)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Index of the first entry with fewer points, i.e. where a new entry with these points goes
+     */
+    private static int insertionIndex(List<LeaderboardEntry> sorted, int points) {
+        int low = 0;
+        int high = sorted.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted.get(mid).getPoints() >= points) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
     }
 
     private void loadData() {
         this.isLoading = true;
         this.entries.clear();
 
-        CompletableFuture.runAsync(() -> {
-            apiService.fetchTierList(gameMode, (tiers, success) -> {
-                if (success && tiers != null) {
-                    try {
-                        // Process data on a background thread
-                        List<LeaderboardEntry> newEntries = new ArrayList<>();
+        // Results for the previous tab are no longer wanted
+        this.loadScope = this.loadScope.renew();
+        RequestScope scope = this.loadScope;
+
+        String mode = this.gameMode;
+        scope.track(apiService.fetchTierListAsync(mode, RequestPriority.VISIBLE))
+                .thenCompose(tiers -> {
+                    if (tiers == null) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+
+                    // Collect ranked players first so every missing username is resolved in one parallel batch
+                    List<LeaderboardEntry> rankedEntries = new ArrayList<>();
 
-                        for (int i = 0; i < tiers.size(); i++) {
-                            JsonObject player = tiers.get(i).getAsJsonObject();
-                            String uuid = player.get("minecraftUUID").getAsString();
-                            JsonArray filterStats = player.getAsJsonArray(gameMode);
-
-                            if (filterStats != null && !filterStats.isEmpty()) {
-                                JsonObject stat = filterStats.get(0).getAsJsonObject();
-                                String tier = stat.get("tier").getAsString();
-                                int points = apiService.getPointsForTier(tier);
-
-                                try {
-                                    String username = apiService.fetchUsernameFromUUID(uuid);
-                                    newEntries.add(new LeaderboardEntry(username, tier, points));
-                                } catch (Exception e) {
-                                    LOGGER.error("Error fetching username for UUID: {}", uuid, e);
-                                }
-                            }
+                    for (TierListEntry player : tiers) {
+                        String tier = player.getTier();
+                        int points = apiService.getPointsForTier(tier);
+
+                        rankedEntries.add(new LeaderboardEntry(player.getUuid(), null, tier, points));
+                    }
+
+                    return scope.track(apiService.fetchUsernamesForTierListAsync(tiers)).thenApply(names -> {
+                        List<LeaderboardEntry> newEntries = new ArrayList<>();
+                        for (LeaderboardEntry entry : rankedEntries) {
+                            String uuid = entry.getUuid();
+                            newEntries.add(new LeaderboardEntry(
+                                    uuid, names.getOrDefault(uuid, uuid), entry.getTier(), entry.getPoints()));
                         }
 
                         // Sort by points (highest first)
                         newEntries.sort(Comparator.comparingInt(LeaderboardEntry::getPoints).reversed());
+                        return newEntries;
+                    });
+                })
+                .whenComplete((newEntries, error) -> {
+                    if (error != null && !scope.isCancelled()) {
+                        LOGGER.error("Error processing tier list data", error);
+                    }
 
-                        // Update the entries on the main thread
-                        MinecraftClient.getInstance().execute(() -> {
+                    // Update the entries on the main thread
+                    scope.runOnClient(() -> {
+                        if (newEntries != null) {
                             entries = newEntries;
-                            isLoading = false;
-                        });
-                    } catch (Exception e) {
-                        LOGGER.error("Error processing tier list data", e);
-                        MinecraftClient.getInstance().execute(() -> isLoading = false);
-                    }
-                } else {
-                    MinecraftClient.getInstance().execute(() -> isLoading = false);
-                }
-            });
-        });
+                        }
+                        isLoading = false;
+                    });
+                });
     }
 
     /**
@@ -341,16 +461,22 @@ public class LeaderboardWidget {
      * Simple data class to hold leaderboard entry information
      */
     private static class LeaderboardEntry {
+        private final String uuid;
         private final String username;
         private final String tier;
         private final int points;
 
-        public LeaderboardEntry(String username, String tier, int points) {
+        public LeaderboardEntry(String uuid, String username, String tier, int points) {
+            this.uuid = uuid;
             this.username = username;
             this.tier = tier;
             this.points = points;
         }
 
+        public String getUuid() {
+            return uuid;
+        }
+
         public String getUsername() {
             return username;
         }
@@ -19,6 +19,10 @@ public class ModConfig {
     private static final File CONFIG_FILE = FabricLoader.getInstance().getConfigDir().resolve("is-tier-tagger.json").toFile();
     private static ModConfig instance;
 
+    // Supported cache weights: below the minimum the tier lists alone wouldn't fit, above the maximum memory isn't bounded in practice
+    private static final int MIN_CACHE_WEIGHT = 1000;
+    private static final int MAX_CACHE_WEIGHT = 1_000_000;
+
     // Basic settings
     private boolean autoOpenBrowser = true;
     private int apiTimeoutSeconds = 20;
@@ -29,6 +33,10 @@ public class ModConfig {
     // Cache settings
     private int cacheDurationMinutes = 15;
     private int tierListCacheDurationMinutes = 30;
+    private int staleCacheGraceMinutes = 60; // Stale data is still shown (and refreshed) this long after expiring
+    private int maxCacheWeight = 10000; // Per cache; one unit is roughly one username, a profile a few, a tier list hundreds
+    private boolean persistentCache = true; // Keep cached data on disk between game sessions
+    private int negativeCacheSeconds = 120; // Unknown usernames and untiered players aren't looked up again for this long
 
     // UI settings
     private boolean compactMode = false;
@@ -75,6 +83,9 @@ public class ModConfig {
                     config.colorSchemeName = "Default";
                 }
 
+                // Hand-edited values are checked here, so the getters return exactly what is used
+                config.setMaxCacheWeight(config.maxCacheWeight);
+
                 return config;
             } catch (IOException e) {
                 System.err.println("Failed to load config file: " + e.getMessage());
@@ -183,6 +194,47 @@ public class ModConfig {
         this.tierListCacheDurationMinutes = tierListCacheDurationMinutes;
     }
 
+    public int getStaleCacheGraceMinutes() {
+        return staleCacheGraceMinutes;
+    }
+
+    public void setStaleCacheGraceMinutes(int staleCacheGraceMinutes) {
+        this.staleCacheGraceMinutes = staleCacheGraceMinutes;
+    }
+
+    public int getMaxCacheWeight() {
+        return maxCacheWeight;
+    }
+
+    /**
+     * Set the weight limit of each cache; values outside the supported range are clamped, and the adjusted value is reported
+     */
+    public void setMaxCacheWeight(int maxCacheWeight) {
+        int effective = Math.min(Math.max(maxCacheWeight, MIN_CACHE_WEIGHT), MAX_CACHE_WEIGHT);
+        if (effective != maxCacheWeight) {
+            System.err.println("maxCacheWeight " + maxCacheWeight + " is outside " + MIN_CACHE_WEIGHT + "-" + MAX_CACHE_WEIGHT
+                    + ", using " + effective);
+        }
+        this.maxCacheWeight = effective;
+    }
+
+    public boolean isPersistentCache() {
+        return persistentCache;
+    }
+
+    public void setPersistentCache(boolean persistentCache) {
+        this.persistentCache = persistentCache;
+    }
+
+    public int getNegativeCacheSeconds() {
+        // 0 turns negative caching off
+        return Math.max(0, negativeCacheSeconds);
+    }
+
+    public void setNegativeCacheSeconds(int negativeCacheSeconds) {
+        this.negativeCacheSeconds = negativeCacheSeconds;
+    }
+
     // Getters and setters for UI settings
 
     public boolean isCompactMode() {
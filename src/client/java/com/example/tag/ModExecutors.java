@@ -0,0 +1,115 @@
+package com.example.tag;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executors owned by the mod, so blocking work never lands on the common ForkJoinPool shared with other mods
+ * Background tasks each get their own virtual thread; delays are timed by a single daemon thread
+ * that only hands tasks over to the virtual threads
+ */
+public final class ModExecutors {
+    private static final ExecutorService VIRTUAL = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("IsTierTagger-Worker-", 1).factory());
+
+    private static final ScheduledThreadPoolExecutor TIMER = new ScheduledThreadPoolExecutor(1,
+            Thread.ofPlatform().name("IsTierTagger-Timer").daemon(true).factory());
+
+    private static final AtomicInteger activeTasks = new AtomicInteger();
+    private static final AtomicLong completedTasks = new AtomicLong();
+    private static final AtomicLong failedTasks = new AtomicLong();
+
+    private static final Executor BACKGROUND = ModExecutors::execute;
+
+    static {
+        // Cancelled delays shouldn't sit in the timer queue until they would have fired
+        TIMER.setRemoveOnCancelPolicy(true);
+    }
+
+    private ModExecutors() {
+    }
+
+    /**
+     * Executor for network callbacks, decoding and any other work that may block
+     */
+    public static Executor background() {
+        return BACKGROUND;
+    }
+
+    /**
+     * Executor that runs each task on a background thread after the given delay
+     * Drop-in replacement for CompletableFuture.delayedExecutor, which would run the task on the common pool
+     */
+    public static Executor delayed(long delay, TimeUnit unit) {
+        return task -> TIMER.schedule(() -> execute(task), delay, unit);
+    }
+
+    /**
+     * Run a task on a background thread every period, starting one period from now
+     * @return Handle to stop the repetition with
+     */
+    public static ScheduledFuture<?> repeating(Runnable task, long period, TimeUnit unit) {
+        return TIMER.scheduleWithFixedDelay(() -> execute(task), period, period, unit);
+    }
+
+    /**
+     * Future that completes on a background thread after the given delay
+     */
+    public static CompletableFuture<Void> delay(long delayMs) {
+        return CompletableFuture.runAsync(() -> { }, delayed(delayMs, TimeUnit.MILLISECONDS));
+    }
+
+    private static void execute(Runnable task) {
+        VIRTUAL.execute(() -> {
+            activeTasks.incrementAndGet();
+            try {
+                task.run();
+            } catch (RuntimeException | Error e) {
+                failedTasks.incrementAndGet();
+                throw e;
+            } finally {
+                activeTasks.decrementAndGet();
+                completedTasks.incrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Get the number of tasks currently running
+     */
+    public static int getActiveTasks() {
+        return activeTasks.get();
+    }
+
+    /**
+     * Get the number of delayed tasks waiting for their time to come
+     */
+    public static int getQueuedTasks() {
+        return TIMER.getQueue().size();
+    }
+
+    public static long getCompletedTasks() {
+        return completedTasks.get();
+    }
+
+    public static String getStatus() {
+        return String.format("active=%d, delayed=%d, completed=%d, failed=%d",
+                getActiveTasks(), getQueuedTasks(), completedTasks.get(), failedTasks.get());
+    }
+
+    /**
+     * Stop accepting work and interrupt whatever is still running
+     * Only called when the game is closing
+     */
+    public static void shutdown() {
+        TIMER.shutdownNow();
+        VIRTUAL.shutdownNow();
+    }
+}
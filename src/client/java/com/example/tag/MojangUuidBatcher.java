@@ -0,0 +1,204 @@
+package com.example.tag;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves usernames to UUIDs in batches using Mojang's bulk profile endpoint
+ * Lookups arriving within a short window are grouped into a single POST of up to 10 names
+ */
+public class MojangUuidBatcher {
+    private static final Gson GSON = new Gson();
+
+    // Mojang rejects bulk requests with more than 10 names
+    private static final int MAX_BATCH_SIZE = 10;
+    private static final long BATCH_WINDOW_MS = 50;
+
+    // Names that can't exist would make Mojang reject the whole batch
+    private static final Pattern VALID_USERNAME = Pattern.compile("[A-Za-z0-9_]{1,16}");
+
+    private final BiFunction<HttpRequest, RequestPriority, CompletableFuture<HttpResponse<String>>> sender;
+    private final TierDataBackend backend;
+    private final Logger logger;
+    private final PlayerDataCache cache;
+
+    // Lowercase username -> future waiting for the next batch
+    private final Map<String, CompletableFuture<String>> pending = new LinkedHashMap<>();
+    // Lowercase username -> most urgent priority any caller asked for it with; guarded by pending
+    private final Map<String, RequestPriority> pendingPriorities = new LinkedHashMap<>();
+    private boolean flushScheduled = false;
+
+    /**
+     * @param sender Sends a bulk request at the given priority, through the service's scheduler like every other request
+     */
+    public MojangUuidBatcher(BiFunction<HttpRequest, RequestPriority, CompletableFuture<HttpResponse<String>>> sender, TierDataBackend backend,
+                             Logger logger, PlayerDataCache cache) {
+        this.sender = sender;
+        this.backend = backend;
+        this.logger = logger;
+        this.cache = cache;
+    }
+
+    /**
+     * Queue a username for the next batch
+     * A batch is sent at the priority of its most urgent name, so prefetches never jump ahead of real lookups
+     * @param priority How urgently the caller needs the UUID
+     * @return Future completing with the dashed UUID, or null if the player does not exist
+     */
+    public CompletableFuture<String> resolve(String username, RequestPriority priority) {
+        if (!VALID_USERNAME.matcher(username).matches()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        String key = username.toLowerCase();
+        List<Batch> fullBatches = null;
+        CompletableFuture<String> future;
+
+        synchronized (pending) {
+            pendingPriorities.merge(key, priority, (current, requested) -> requested.compareTo(current) < 0 ? requested : current);
+
+            future = pending.get(key);
+            if (future != null) {
+                return future.copy();
+            }
+
+            future = new CompletableFuture<>();
+            pending.put(key, future);
+
+            if (pending.size() >= MAX_BATCH_SIZE) {
+                // A full batch doesn't need to wait for the window
+                fullBatches = drainPending();
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                ModExecutors.delayed(BATCH_WINDOW_MS, TimeUnit.MILLISECONDS).execute(this::flush);
+            }
+        }
+
+        if (fullBatches != null) {
+            fullBatches.forEach(this::sendBatch);
+        }
+
+        return future.copy();
+    }
+
+    private void flush() {
+        List<Batch> batches;
+        synchronized (pending) {
+            flushScheduled = false;
+            batches = drainPending();
+        }
+        batches.forEach(this::sendBatch);
+    }
+
+    /**
+     * Split everything pending into batches of at most MAX_BATCH_SIZE names
+     * Must be called while holding the pending lock
+     */
+    private List<Batch> drainPending() {
+        List<Batch> batches = new ArrayList<>();
+        Batch batch = new Batch();
+
+        for (Map.Entry<String, CompletableFuture<String>> entry : pending.entrySet()) {
+            batch.add(entry.getKey(), entry.getValue(), pendingPriorities.get(entry.getKey()));
+            if (batch.futures.size() == MAX_BATCH_SIZE) {
+                batches.add(batch);
+                batch = new Batch();
+            }
+        }
+        if (!batch.futures.isEmpty()) {
+            batches.add(batch);
+        }
+
+        pending.clear();
+        pendingPriorities.clear();
+        return batches;
+    }
+
+    private void sendBatch(Batch pendingBatch) {
+        Map<String, CompletableFuture<String>> batch = pendingBatch.futures;
+        JsonArray names = new JsonArray();
+        batch.keySet().forEach(names::add);
+
+        HttpRequest request = backend.bulkUuidRequest(GSON.toJson(names)).build();
+
+        logger.debug("Resolving {} usernames in one bulk request at {} priority", batch.size(), pendingBatch.priority);
+
+        sender.apply(request, pendingBatch.priority).whenComplete((response, error) -> {
+            if (error != null) {
+                batch.values().forEach(future -> future.completeExceptionally(error));
+                return;
+            }
+
+            if (response.statusCode() != 200) {
+                IOException failure = new IOException("Bulk UUID lookup failed with status " + response.statusCode());
+                batch.values().forEach(future -> future.completeExceptionally(failure));
+                return;
+            }
+
+            try {
+                JsonArray profiles = GSON.fromJson(response.body(), JsonArray.class);
+                for (JsonElement element : profiles) {
+                    JsonObject profile = element.getAsJsonObject();
+                    String name = profile.get("name").getAsString();
+                    String uuid = formatUuid(profile.get("id").getAsString());
+
+                    // Cache the result in both directions
+                    cache.cacheUUID(name, uuid);
+                    cache.cacheUsername(uuid, name);
+
+                    CompletableFuture<String> future = batch.get(name.toLowerCase());
+                    if (future != null) {
+                        future.complete(uuid);
+                    }
+                }
+
+                // Mojang leaves unknown names out of the response; remember them so typos aren't looked up again
+                batch.forEach((name, future) -> {
+                    if (future.complete(null)) {
+                        cache.cacheMissingUUID(name);
+                    }
+                });
+            } catch (Exception e) {
+                logger.error("Error parsing bulk UUID response", e);
+                batch.values().forEach(future -> future.completeExceptionally(e));
+            }
+        });
+    }
+
+    /**
+     * Names sent together in one bulk request
+     */
+    private static class Batch {
+        private final Map<String, CompletableFuture<String>> futures = new LinkedHashMap<>();
+        private RequestPriority priority = RequestPriority.BACKGROUND;
+
+        private void add(String name, CompletableFuture<String> future, RequestPriority namePriority) {
+            futures.put(name, future);
+            if (namePriority != null && namePriority.compareTo(priority) < 0) {
+                priority = namePriority;
+            }
+        }
+    }
+
+    /**
+     * Insert dashes into an undashed Mojang UUID
+     */
+    public static String formatUuid(String uuid) {
+        return uuid.replaceAll("(\\w{8})(\\w{4})(\\w{4})(\\w{4})(\\w{12})", "$1-$2-$3-$4-$5");
+    }
+}
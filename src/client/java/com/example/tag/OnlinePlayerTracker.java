@@ -0,0 +1,121 @@
+package com.example.tag;
+
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.network.ClientPlayNetworkHandler;
+import net.minecraft.client.network.PlayerListEntry;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Keeps a snapshot of the players on the current server and reports who joined
+ * The player list is read on the client thread; the snapshot can be read from any thread
+ */
+public class OnlinePlayerTracker {
+    // Scan once a second rather than every tick
+    private static final int SCAN_INTERVAL_TICKS = 20;
+
+    private final List<Consumer<Map<String, String>>> joinListeners = new CopyOnWriteArrayList<>();
+
+    // UUID -> username, replaced as a whole on every scan
+    private volatile Map<String, String> snapshot = Collections.emptyMap();
+    // Lowercase username -> UUID for the same players, replaced together with the snapshot
+    private volatile Map<String, String> uuidsByName = Collections.emptyMap();
+    private int ticksUntilScan = 0;
+
+    /**
+     * Called every client tick
+     */
+    public void tick(MinecraftClient client) {
+        if (--ticksUntilScan > 0) {
+            return;
+        }
+        ticksUntilScan = SCAN_INTERVAL_TICKS;
+
+        ClientPlayNetworkHandler networkHandler = client.getNetworkHandler();
+        if (networkHandler == null) {
+            clear();
+            return;
+        }
+
+        Map<String, String> previous = snapshot;
+        Map<String, String> current = new HashMap<>();
+        Map<String, String> byName = new HashMap<>();
+        Map<String, String> joined = new LinkedHashMap<>();
+
+        for (PlayerListEntry entry : networkHandler.getPlayerList()) {
+            UUID id = entry.getProfile().getId();
+            // NPCs and offline-mode players use other UUID versions and have no Mojang account
+            if (id == null || id.version() != 4) {
+                continue;
+            }
+
+            String uuid = id.toString();
+            String username = entry.getProfile().getName();
+            current.put(uuid, username);
+            byName.put(username.toLowerCase(), uuid);
+            if (!previous.containsKey(uuid)) {
+                joined.put(uuid, username);
+            }
+        }
+
+        snapshot = Collections.unmodifiableMap(current);
+        uuidsByName = byName;
+
+        if (!joined.isEmpty()) {
+            Map<String, String> joinedView = Collections.unmodifiableMap(joined);
+            for (Consumer<Map<String, String>> listener : joinListeners) {
+                listener.accept(joinedView);
+            }
+        }
+    }
+
+    /**
+     * Forget the current server's players, e.g. on disconnect
+     */
+    public void clear() {
+        snapshot = Collections.emptyMap();
+        uuidsByName = Collections.emptyMap();
+    }
+
+    /**
+     * Register a listener receiving UUID -> username for players who appeared since the last scan
+     */
+    public void addJoinListener(Consumer<Map<String, String>> listener) {
+        joinListeners.add(listener);
+    }
+
+    /**
+     * Get the players seen in the last scan
+     * @return Read-only UUID -> username map
+     */
+    public Map<String, String> getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Get the UUID of a player on the server
+     * @return The UUID, or null if nobody with that name was seen in the last scan
+     */
+    public String findUuid(String username) {
+        return uuidsByName.get(username.toLowerCase());
+    }
+
+    /**
+     * Get the username of a player on the server
+     * @return The username, or null if the player wasn't seen in the last scan
+     */
+    public String findUsername(String uuid) {
+        return snapshot.get(uuid.toLowerCase());
+    }
+
+    public boolean isOnline(String uuid) {
+        return snapshot.containsKey(uuid.toLowerCase());
+    }
+}
@@ -1,9 +1,6 @@
 package com.example.tag;
 
 import com.example.tag.fix.DirectTextRenderer;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
-import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.DrawContext;
 import net.minecraft.client.gui.Drawable;
 import net.minecraft.client.gui.Element;
@@ -14,8 +11,6 @@ import net.minecraft.text.Text;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.CompletableFuture;
-
 /**
  * Screen for comparing two players side-by-side
  * Enhanced with pixel-perfect rendering for maximum clarity
@@ -35,19 +30,22 @@ public class PlayerComparisonScreen extends Screen {
     private ButtonWidget backButton;
 
     // State
-    private JsonObject player1Data;
-    private JsonObject player2Data;
+    private PlayerTierProfile player1Data;
+    private PlayerTierProfile player2Data;
     private String player1Username;
     private String player2Username;
     private boolean isLoading = false;
 
+    // Lookups of the current comparison; replaced by each new comparison and cancelled when the screen closes
+    private RequestScope requestScope = new RequestScope();
+
     // Game modes for comparison
     private static final String[] GAME_MODES = {"crystal", "sword", "uhc", "pot", "smp"};
     private static final String[] MODE_LABELS = {"Crystal", "Sword", "UHC", "Pot", "SMP"};
 
     public PlayerComparisonScreen() {
         super(Text.literal("Player Comparison"));
-        this.apiService = new IsrealTiersApiService(LOGGER);
+        this.apiService = IstiertaggerClient.getInstance().getApiService();
     }
 
     @Override
@@ -115,55 +113,29 @@ public class PlayerComparisonScreen extends Screen {
         player1Data = null;
         player2Data = null;
 
+        // A new comparison replaces whatever the last one was still waiting for
+        requestScope = requestScope.renew();
+        RequestScope scope = requestScope;
+
         // Fetch data for both players concurrently
-        CompletableFuture.runAsync(() -> {
-            try {
-                String uuid1 = apiService.fetchUUID(player1Username);
-                if (uuid1 == null) {
-                    MinecraftClient.getInstance().execute(() -> {
-                        player1Data = null;
-                        checkComparisonReady();
-                    });
-                } else {
-                    apiService.fetchPlayerData(uuid1, (data, success) -> {
-                        MinecraftClient.getInstance().execute(() -> {
-                            player1Data = success ? data : null;
-                            checkComparisonReady();
-                        });
-                    });
-                }
-            } catch (Exception e) {
-                LOGGER.error("Error fetching data for player 1", e);
-                MinecraftClient.getInstance().execute(() -> {
-                    player1Data = null;
-                    checkComparisonReady();
-                });
+        scope.track(apiService.fetchPlayerDataByUsernameAsync(player1Username)).whenComplete((data, error) -> {
+            if (error != null && !scope.isCancelled()) {
+                LOGGER.error("Error fetching data for player 1", error);
             }
+            scope.runOnClient(() -> {
+                player1Data = data;
+                checkComparisonReady();
+            });
         });
 
-        CompletableFuture.runAsync(() -> {
-            try {
-                String uuid2 = apiService.fetchUUID(player2Username);
-                if (uuid2 == null) {
-                    MinecraftClient.getInstance().execute(() -> {
-                        player2Data = null;
-                        checkComparisonReady();
-                    });
-                } else {
-                    apiService.fetchPlayerData(uuid2, (data, success) -> {
-                        MinecraftClient.getInstance().execute(() -> {
-                            player2Data = success ? data : null;
-                            checkComparisonReady();
-                        });
-                    });
-                }
-            } catch (Exception e) {
-                LOGGER.error("Error fetching data for player 2", e);
-                MinecraftClient.getInstance().execute(() -> {
-                    player2Data = null;
-                    checkComparisonReady();
-                });
+        scope.track(apiService.fetchPlayerDataByUsernameAsync(player2Username)).whenComplete((data, error) -> {
+            if (error != null && !scope.isCancelled()) {
+                LOGGER.error("Error fetching data for player 2", error);
             }
+            scope.runOnClient(() -> {
+                player2Data = data;
+                checkComparisonReady();
+            });
         });
     }
 
@@ -314,22 +286,11 @@ public class PlayerComparisonScreen extends Screen {
                 String tier1 = "N/A";
                 int points1 = 0;
 
-                try {
-                    JsonObject userData = player1Data.get("userData").getAsJsonObject();
-                    JsonArray stats = userData.getAsJsonArray("stats");
-                    if (stats != null && !stats.isEmpty()) {
-                        JsonObject gameStats = stats.get(0).getAsJsonObject();
-                        JsonArray modeStats = gameStats.getAsJsonArray(gameMode);
-
-                        if (modeStats != null && !modeStats.isEmpty()) {
-                            JsonObject stat = modeStats.get(0).getAsJsonObject();
-                            tier1 = stat.get("tier").getAsString();
-                            points1 = apiService.getPointsForTier(tier1);
-                            totalPlayer1Points += points1;
-                        }
-                    }
-                } catch (Exception e) {
-                    LOGGER.error("Error parsing player 1 data for " + gameMode, e);
+                String tier = player1Data.getTier(gameMode);
+                if (tier != null) {
+                    tier1 = tier;
+                    points1 = apiService.getPointsForTier(tier1);
+                    totalPlayer1Points += points1;
                 }
 
                 // Display tier and points with sharp text
@@ -355,22 +316,11 @@ public class PlayerComparisonScreen extends Screen {
                 String tier2 = "N/A";
                 int points2 = 0;
 
-                try {
-                    JsonObject userData = player2Data.get("userData").getAsJsonObject();
-                    JsonArray stats = userData.getAsJsonArray("stats");
-                    if (stats != null && !stats.isEmpty()) {
-                        JsonObject gameStats = stats.get(0).getAsJsonObject();
-                        JsonArray modeStats = gameStats.getAsJsonArray(gameMode);
-
-                        if (modeStats != null && !modeStats.isEmpty()) {
-                            JsonObject stat = modeStats.get(0).getAsJsonObject();
-                            tier2 = stat.get("tier").getAsString();
-                            points2 = apiService.getPointsForTier(tier2);
-                            totalPlayer2Points += points2;
-                        }
-                    }
-                } catch (Exception e) {
-                    LOGGER.error("Error parsing player 2 data for " + gameMode, e);
+                String tier = player2Data.getTier(gameMode);
+                if (tier != null) {
+                    tier2 = tier;
+                    points2 = apiService.getPointsForTier(tier2);
+                    totalPlayer2Points += points2;
                 }
 
                 // Display tier and points with sharp text
@@ -471,6 +421,12 @@ public class PlayerComparisonScreen extends Screen {
         this.client.setScreen(new TierScreen());
     }
 
+    @Override
+    public void removed() {
+        super.removed();
+        requestScope.cancel();
+    }
+
     @Override
     public boolean shouldPause() {
         return false;
@@ -1,42 +1,155 @@
 package com.example.tag;
 
-import com.google.gson.JsonObject;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.reflect.TypeToken;
 import org.slf4j.Logger;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
 
 /**
  * Caching system for player data to reduce API calls
+ * Each cache is bounded by weight, so memory stays flat however many players are looked up in a session
+ * Lookups only read memory; entries on disk are brought back by the asynchronous restore methods
  */
 public class PlayerDataCache {
+    private static final Gson GSON = new Gson();
+    private static final Type TIER_LIST_TYPE = new TypeToken<List<TierListEntry>>(){}.getType();
+
+    // Minecraft usernames; anything else in a seeded name is a placeholder or garbage
+    private static final Pattern VALID_USERNAME = Pattern.compile("[A-Za-z0-9_]{3,16}");
+
+    // Disk cache namespaces
+    private static final String UUIDS = "uuid";
+    private static final String USERNAMES = "username";
+    private static final String PLAYERS = "players";
+    private static final String TIER_LISTS = "tierlists";
+
     private final Logger logger;
-    private final Map<String, CacheEntry> uuidCache = new HashMap<>(); // username -> uuid cache
-    private final Map<String, CacheEntry> playerDataCache = new HashMap<>(); // uuid -> player data cache
-    private final Map<String, CacheEntry> tierListCache = new HashMap<>(); // filter -> tier list cache
+
+    // Second level that survives restarts; null when persistence is off
+    private final DiskCache diskCache;
+
+    // Entries are written from network threads, so all caches must be concurrent
+    private final BoundedCache<String, CacheEntry> uuidCache; // username -> uuid cache
+    private final BoundedCache<String, CacheEntry> usernameCache; // uuid -> username cache, filled by parallel lookups
+    private final BoundedCache<String, CacheEntry> playerDataCache; // uuid -> player data cache
+    private final BoundedCache<String, CacheEntry> tierListCache; // filter -> tier list cache
+
+    // Lookups known to find nothing, kept apart from real entries: "uuid:" + username or "player:" + uuid -> expiry time
+    // Short-lived and memory only, since a typo today may be a registered name tomorrow
+    private final BoundedCache<String, Long> missCache;
+    private final AtomicLong missHits = new AtomicLong();
+
+    // Told the UUID of every player whose cached profile changed, e.g. so nametags drop what they derived from it
+    private final List<Consumer<String>> playerDataListeners = new CopyOnWriteArrayList<>();
+
+    // Per-region lookup and load counters
+    private final CacheMetrics uuidMetrics;
+    private final CacheMetrics usernameMetrics;
+    private final CacheMetrics playerDataMetrics;
+    private final CacheMetrics tierListMetrics;
+
+    // Minimum time between background refreshes of the same stale entry
+    private static final long REFRESH_RETRY_INTERVAL_MS = TimeUnit.SECONDS.toMillis(30);
+
+    // Expired entries are swept in small batches, so a pass never holds up the caches for long
+    private static final long SWEEP_INTERVAL_SECONDS = 15;
+    private static final int SWEEP_BATCH_SIZE = 1024;
+
+    private ScheduledFuture<?> sweeper;
 
     // Default cache durations
     private final long uuidCacheDurationMs;
     private final long playerDataCacheDurationMs;
     private final long tierListCacheDurationMs;
+    private final long staleGraceMs;
+    private final long missCacheDurationMs;
 
     /**
      * Cache entry class to store data with expiration
+     * An entry is fresh until staleTime, stale but usable until expirationTime, and missing after that
      */
     private static class CacheEntry {
         private final Object data;
-        private final long expirationTime;
+        private final CacheValidators validators;
+        private volatile long staleTime;
+        private volatile long expirationTime;
+        private volatile long lastRefreshAttempt = 0;
 
         public CacheEntry(Object data, long expirationTimeMs) {
+            this(data, expirationTimeMs, 0, null);
+        }
+
+        public CacheEntry(Object data, long staleTimeMs, long graceMs, CacheValidators validators) {
             this.data = data;
-            this.expirationTime = System.currentTimeMillis() + expirationTimeMs;
+            this.validators = validators;
+            renew(staleTimeMs, graceMs);
+        }
+
+        /**
+         * Recreate an entry read from disk, keeping its original lifetime
+         */
+        public static CacheEntry restored(Object data, long staleTime, long expirationTime, CacheValidators validators) {
+            CacheEntry entry = new CacheEntry(data, 0, 0, validators);
+            entry.staleTime = staleTime;
+            entry.expirationTime = expirationTime;
+            return entry;
+        }
+
+        /**
+         * Describe the entry for the disk cache
+         */
+        public DiskCache.Record toRecord(JsonElement json) {
+            return new DiskCache.Record(json, staleTime, expirationTime, validators);
+        }
+
+        public long getExpirationTime() {
+            return expirationTime;
+        }
+
+        public CacheValidators getValidators() {
+            return validators;
+        }
+
+        /**
+         * Extend the lifetime after the server confirmed the data is unchanged
+         */
+        public void renew(long staleTimeMs, long graceMs) {
+            long now = System.currentTimeMillis();
+            this.staleTime = now + staleTimeMs;
+            this.expirationTime = now + staleTimeMs + graceMs;
+        }
+
+        public boolean isStale() {
+            return System.currentTimeMillis() > staleTime;
         }
 
         public boolean isExpired() {
             return System.currentTimeMillis() > expirationTime;
         }
 
+        /**
+         * Claim the right to refresh this stale entry, at most once per retry interval
+         */
+        public synchronized boolean claimRefresh() {
+            long now = System.currentTimeMillis();
+            if (now <= staleTime || now - lastRefreshAttempt < REFRESH_RETRY_INTERVAL_MS) {
+                return false;
+            }
+            lastRefreshAttempt = now;
+            return true;
+        }
+
         public Object getData() {
             return data;
         }
@@ -47,16 +160,118 @@ public class PlayerDataCache {
     }
 
     public PlayerDataCache(Logger logger) {
+        this(logger, null);
+    }
+
+    /**
+     * @param diskCache Where entries are persisted between sessions, or null to keep everything in memory
+     */
+    public PlayerDataCache(Logger logger, DiskCache diskCache) {
         this.logger = logger;
+        this.diskCache = diskCache;
 
         // Get cache durations from config
         ModConfig config = ModConfig.getInstance();
         this.uuidCacheDurationMs = TimeUnit.MINUTES.toMillis(60); // 1 hour (UUIDs rarely change)
         this.playerDataCacheDurationMs = TimeUnit.MINUTES.toMillis(config.getCacheDurationMinutes());
         this.tierListCacheDurationMs = TimeUnit.MINUTES.toMillis(config.getTierListCacheDurationMinutes());
+        this.staleGraceMs = TimeUnit.MINUTES.toMillis(config.getStaleCacheGraceMinutes());
+        this.missCacheDurationMs = TimeUnit.SECONDS.toMillis(config.getNegativeCacheSeconds());
+
+        long maxWeight = config.getMaxCacheWeight();
+        this.uuidCache = new BoundedCache<>(maxWeight, PlayerDataCache::weigh);
+        this.usernameCache = new BoundedCache<>(maxWeight, PlayerDataCache::weigh);
+        this.playerDataCache = new BoundedCache<>(maxWeight, PlayerDataCache::weigh);
+        this.tierListCache = new BoundedCache<>(maxWeight, PlayerDataCache::weigh);
+        this.missCache = new BoundedCache<>(maxWeight, expiry -> 1);
 
-        logger.info("Initialized player data cache with durations: UUID={}ms, PlayerData={}ms, TierList={}ms",
-                uuidCacheDurationMs, playerDataCacheDurationMs, tierListCacheDurationMs);
+        this.uuidMetrics = new CacheMetrics("UUIDs", uuidCache);
+        this.usernameMetrics = new CacheMetrics("Usernames", usernameCache);
+        this.playerDataMetrics = new CacheMetrics("Player data", playerDataCache);
+        this.tierListMetrics = new CacheMetrics("Tier lists", tierListCache);
+
+        // Name mappings are read in the background, so the first name lookups don't wait for the file
+        if (diskCache != null) {
+            diskCache.preloadNames();
+        }
+
+        logger.info("Initialized player data cache with durations: UUID={}ms, PlayerData={}ms, TierList={}ms, StaleGrace={}ms, MaxWeight={}",
+                uuidCacheDurationMs, playerDataCacheDurationMs, tierListCacheDurationMs, staleGraceMs, maxWeight);
+    }
+
+    /**
+     * Approximate memory cost of an entry, in units of about 256 bytes
+     * Names and profiles are one unit each, and a tier list grows with its players
+     */
+    private static int weigh(CacheEntry entry) {
+        Object data = entry.getData();
+        if (data instanceof List<?> list) {
+            return 1 + list.size() / 3;
+        }
+        return 1;
+    }
+
+    /**
+     * Fall back to the disk cache's name mappings after a memory miss, keeping what it finds in memory
+     * The mappings are preloaded in memory, so this never waits for the disk
+     * @return The restored entry, or null if nothing is stored
+     */
+    private CacheEntry loadName(BoundedCache<String, CacheEntry> memory, String namespace, String key) {
+        if (diskCache == null) {
+            return null;
+        }
+
+        DiskCache.NameMapping mapping = diskCache.loadName(namespace, key);
+        if (mapping == null) {
+            return null;
+        }
+
+        CacheEntry entry = CacheEntry.restored(mapping.getValue(), mapping.getExpirationTime(), mapping.getExpirationTime(), null);
+        memory.put(key, entry);
+        return entry;
+    }
+
+    /**
+     * Read an entry the memory cache doesn't have from disk, in the background, and keep it in memory
+     * @return Future completing with the entry, possibly expired but revalidatable, or null if nothing usable is stored
+     */
+    private CompletableFuture<CacheEntry> restoreRecord(BoundedCache<String, CacheEntry> memory, String namespace, String key,
+                                                        Function<JsonElement, Object> decoder) {
+        if (diskCache == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return diskCache.loadAsync(namespace, key).thenApply(record -> {
+            // Whatever was cached while the file was being read is newer than the file
+            CacheEntry current = memory.peek(key);
+            if (current != null || record == null) {
+                return current;
+            }
+
+            Object data;
+            try {
+                data = decoder.apply(record.getData());
+            } catch (RuntimeException e) {
+                logger.warn("Discarding malformed disk cache entry {} {}: {}", namespace, key, e.toString());
+                diskCache.remove(namespace, key);
+                return null;
+            }
+
+            CacheEntry entry = CacheEntry.restored(data, record.getStaleTime(), record.getExpirationTime(), record.getValidators());
+            memory.put(key, entry);
+            return entry;
+        });
+    }
+
+    private void saveRecord(String namespace, String key, CacheEntry entry, JsonElement json) {
+        if (diskCache != null) {
+            diskCache.save(namespace, key, entry.toRecord(json));
+        }
+    }
+
+    private static List<TierListEntry> decodeTierList(JsonElement json) {
+        List<TierListEntry> tierList = GSON.fromJson(json, TIER_LIST_TYPE);
+        return List.copyOf(tierList);
     }
 
     /**
@@ -66,15 +281,20 @@ public class PlayerDataCache {
      */
     public String getCachedUUID(String username) {
         CacheEntry entry = uuidCache.get(username.toLowerCase());
+        if (entry == null) {
+            entry = loadName(uuidCache, UUIDS, username.toLowerCase());
+        }
         if (entry != null && !entry.isExpired()) {
             logger.debug("Cache hit for UUID of {}", username);
+            uuidMetrics.recordHit();
             return (String) entry.getData();
         }
+        recordMiss(uuidMetrics, entry);
 
         // Remove expired entry if exists
         if (entry != null) {
             logger.debug("Removing expired UUID cache for {}", username);
-            uuidCache.remove(username.toLowerCase());
+            uuidCache.remove(username.toLowerCase(), entry);
         }
 
         return null;
@@ -87,69 +307,464 @@ public class PlayerDataCache {
      */
     public void cacheUUID(String username, String uuid) {
         logger.debug("Caching UUID for {} -> {}", username, uuid);
-        uuidCache.put(username.toLowerCase(), new CacheEntry(uuid, uuidCacheDurationMs));
+        missCache.remove("uuid:" + username.toLowerCase());
+        CacheEntry entry = new CacheEntry(uuid, uuidCacheDurationMs);
+        uuidCache.put(username.toLowerCase(), entry);
+        if (diskCache != null) {
+            diskCache.saveName(UUIDS, username.toLowerCase(), uuid, entry.getExpirationTime());
+        }
     }
 
     /**
-     * Get player data from cache
+     * Get username from cache
      * @param uuid Player UUID
-     * @return JsonObject if in cache and not expired, null otherwise
+     * @return Username if in cache and not expired, null otherwise
      */
-    public JsonObject getCachedPlayerData(String uuid) {
-        CacheEntry entry = playerDataCache.get(uuid);
+    public String getCachedUsername(String uuid) {
+        CacheEntry entry = usernameCache.get(uuid.toLowerCase());
+        if (entry == null) {
+            entry = loadName(usernameCache, USERNAMES, uuid.toLowerCase());
+        }
         if (entry != null && !entry.isExpired()) {
-            logger.debug("Cache hit for player data of {}", uuid);
-            return (JsonObject) entry.getData();
+            logger.debug("Cache hit for username of {}", uuid);
+            usernameMetrics.recordHit();
+            return (String) entry.getData();
         }
+        recordMiss(usernameMetrics, entry);
 
         // Remove expired entry if exists
         if (entry != null) {
+            logger.debug("Removing expired username cache for {}", uuid);
+            usernameCache.remove(uuid.toLowerCase(), entry);
+        }
+
+        return null;
+    }
+
+    /**
+     * Get a username without counting a lookup, for reads that never lead to a network request
+     * Leaves the metrics and the admission counts alone, so rebuilding search results doesn't skew them
+     * @return Username if in cache and not expired, null otherwise
+     */
+    public String peekUsername(String uuid) {
+        String key = uuid.toLowerCase();
+        CacheEntry entry = usernameCache.peek(key);
+        if (entry == null) {
+            entry = loadName(usernameCache, USERNAMES, key);
+        }
+        return entry != null && !entry.isExpired() ? (String) entry.getData() : null;
+    }
+
+    /**
+     * Cache a username
+     * @param uuid Player UUID
+     * @param username Player username
+     */
+    public void cacheUsername(String uuid, String username) {
+        logger.debug("Caching username for {} -> {}", uuid, username);
+        CacheEntry entry = new CacheEntry(username, uuidCacheDurationMs);
+        usernameCache.put(uuid.toLowerCase(), entry);
+        if (diskCache != null) {
+            diskCache.saveName(USERNAMES, uuid.toLowerCase(), username, entry.getExpirationTime());
+        }
+    }
+
+    /**
+     * Remember a username the client learned without a lookup, e.g. from a tier list or the player list
+     * Unlike cacheUsername, nothing is written when the name is already cached, so seeding the same players
+     * over and over stays cheap
+     * @param current Whether the name is known to be current and should replace a different cached name
+     */
+    public void seedUsername(String uuid, String username, boolean current) {
+        if (uuid == null || username == null || !VALID_USERNAME.matcher(username).matches()) {
+            return;
+        }
+
+        String key = uuid.toLowerCase();
+        CacheEntry entry = usernameCache.peek(key);
+        if (entry == null) {
+            entry = loadName(usernameCache, USERNAMES, key);
+        }
+        if (entry != null && !entry.isExpired() && (!current || username.equals(entry.getData()))) {
+            return;
+        }
+
+        cacheUsername(uuid, username);
+    }
+
+    /**
+     * Get player data from the memory cache
+     * @param uuid Player UUID
+     * @return Profile if in cache and not past its hard expiry, null otherwise; may be stale
+     */
+    public PlayerTierProfile getCachedPlayerData(String uuid) {
+        CacheEntry entry = playerDataCache.get(uuid);
+        if (entry != null && !entry.isExpired()) {
+            logger.debug("Cache hit for player data of {}", uuid);
+            playerDataMetrics.recordHit();
+            return (PlayerTierProfile) entry.getData();
+        }
+        recordMiss(playerDataMetrics, entry);
+
+        // Remove expired entry if exists, unless it can still be revalidated
+        if (entry != null && entry.getValidators() == null) {
             logger.debug("Removing expired player data cache for {}", uuid);
-            playerDataCache.remove(uuid);
+            playerDataCache.remove(uuid, entry);
         }
 
         return null;
     }
 
+    /**
+     * Get player data without counting a lookup, for rendering and other reads that never lead to a network request
+     * @return Profile if in cache and not past its hard expiry, null otherwise; may be stale
+     */
+    public PlayerTierProfile peekPlayerData(String uuid) {
+        CacheEntry entry = playerDataCache.peek(uuid);
+        return entry != null && !entry.isExpired() ? (PlayerTierProfile) entry.getData() : null;
+    }
+
+    /**
+     * Bring player data back from the disk cache after a memory miss
+     * An expired profile with validators is restored too, so the next request can revalidate it
+     * @param uuid Player UUID
+     * @return Future completing with the profile if one is stored and not past its hard expiry, null otherwise
+     */
+    public CompletableFuture<PlayerTierProfile> restorePlayerData(String uuid) {
+        return restoreRecord(playerDataCache, PLAYERS, uuid, json -> PlayerTierProfile.fromJson(json.getAsJsonObject()))
+                .thenApply(entry -> {
+                    if (entry == null || entry.isExpired()) {
+                        return null;
+                    }
+                    playerDataChanged(uuid);
+                    return (PlayerTierProfile) entry.getData();
+                });
+    }
+
     /**
      * Cache player data
      * @param uuid Player UUID
      * @param data Player data
      */
-    public void cachePlayerData(String uuid, JsonObject data) {
+    public void cachePlayerData(String uuid, PlayerTierProfile data) {
+        cachePlayerData(uuid, data, null);
+    }
+
+    /**
+     * Cache player data along with the validators needed to revalidate it later
+     * @param uuid Player UUID
+     * @param data Player data
+     * @param validators ETag / Last-Modified of the response, may be null
+     */
+    public void cachePlayerData(String uuid, PlayerTierProfile data, CacheValidators validators) {
         logger.debug("Caching player data for {}", uuid);
-        playerDataCache.put(uuid, new CacheEntry(data, playerDataCacheDurationMs));
+        missCache.remove("player:" + uuid.toLowerCase());
+        CacheEntry entry = new CacheEntry(data, playerDataCacheDurationMs, staleGraceMs, validators);
+        playerDataCache.put(uuid, entry);
+        saveRecord(PLAYERS, uuid, entry, data.toJson());
+        playerDataChanged(uuid);
     }
 
     /**
-     * Get tier list from cache
+     * Get told whenever a player's cached profile is stored, restored or dropped
+     * @param listener Called with the player's UUID, on whichever thread changed the profile
+     */
+    public void addPlayerDataListener(Consumer<String> listener) {
+        playerDataListeners.add(listener);
+    }
+
+    private void playerDataChanged(String uuid) {
+        for (Consumer<String> listener : playerDataListeners) {
+            try {
+                listener.accept(uuid);
+            } catch (RuntimeException e) {
+                logger.error("Error in player data listener", e);
+            }
+        }
+    }
+
+    /**
+     * Check whether cached player data is stale and should be refreshed in the background
+     * Returns true at most once per retry interval, so concurrent readers trigger a single refresh
+     * @param uuid Player UUID
+     */
+    public boolean claimPlayerDataRefresh(String uuid) {
+        CacheEntry entry = playerDataCache.peek(uuid);
+        return entry != null && !entry.isExpired() && entry.claimRefresh();
+    }
+
+    /**
+     * Drop cached player data that is known to be out of date
+     * @param uuid Player UUID
+     */
+    public void invalidatePlayerData(String uuid) {
+        missCache.remove("player:" + uuid.toLowerCase());
+        if (playerDataCache.remove(uuid) != null) {
+            logger.debug("Invalidated player data cache for {}", uuid);
+        }
+        if (diskCache != null) {
+            diskCache.remove(PLAYERS, uuid);
+        }
+        playerDataChanged(uuid);
+    }
+
+    /**
+     * Get the validators of a cached player profile, even if it has expired
+     * @param uuid Player UUID
+     * @return Validators, or null if nothing revalidatable is cached
+     */
+    public CacheValidators getPlayerDataValidators(String uuid) {
+        CacheEntry entry = playerDataCache.peek(uuid);
+        return entry != null ? entry.getValidators() : null;
+    }
+
+    /**
+     * Renew a cached player profile after a 304 Not Modified response
+     * @param uuid Player UUID
+     * @return The cached data, or null if it is no longer cached
+     */
+    public PlayerTierProfile renewPlayerData(String uuid) {
+        CacheEntry entry = playerDataCache.peek(uuid);
+        if (entry == null) {
+            return null;
+        }
+
+        logger.debug("Player data for {} not modified, renewing cache", uuid);
+        entry.renew(playerDataCacheDurationMs, staleGraceMs);
+        PlayerTierProfile data = (PlayerTierProfile) entry.getData();
+        saveRecord(PLAYERS, uuid, entry, data.toJson());
+        return data;
+    }
+
+    /**
+     * Get tier list from the memory cache
      * @param filter Game mode filter
-     * @return JsonArray if in cache and not expired, null otherwise
+     * @return Tier list if in cache and not past its hard expiry, null otherwise; may be stale
      */
-    public Object getCachedTierList(String filter) {
+    @SuppressWarnings("unchecked")
+    public List<TierListEntry> getCachedTierList(String filter) {
         CacheEntry entry = tierListCache.get(filter);
         if (entry != null && !entry.isExpired()) {
             logger.debug("Cache hit for tier list with filter {}", filter);
-            return entry.getData();
+            tierListMetrics.recordHit();
+            return (List<TierListEntry>) entry.getData();
         }
+        recordMiss(tierListMetrics, entry);
 
-        // Remove expired entry if exists
-        if (entry != null) {
+        // Remove expired entry if exists, unless it can still be revalidated
+        if (entry != null && entry.getValidators() == null) {
             logger.debug("Removing expired tier list cache for {}", filter);
-            tierListCache.remove(filter);
+            tierListCache.remove(filter, entry);
         }
 
         return null;
     }
 
+    /**
+     * Get a tier list without counting a lookup, for reads that never lead to a network request
+     * @return Tier list if in cache and not past its hard expiry, null otherwise; may be stale
+     */
+    @SuppressWarnings("unchecked")
+    public List<TierListEntry> peekTierList(String filter) {
+        CacheEntry entry = tierListCache.peek(filter);
+        return entry != null && !entry.isExpired() ? (List<TierListEntry>) entry.getData() : null;
+    }
+
+    /**
+     * Bring a tier list back from the disk cache after a memory miss
+     * An expired list with validators is restored too, so the next request can revalidate it
+     * @param filter Game mode filter
+     * @return Future completing with the list if one is stored and not past its hard expiry, null otherwise
+     */
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<List<TierListEntry>> restoreTierList(String filter) {
+        return restoreRecord(tierListCache, TIER_LISTS, filter, PlayerDataCache::decodeTierList)
+                .thenApply(entry -> entry != null && !entry.isExpired() ? (List<TierListEntry>) entry.getData() : null);
+    }
+
     /**
      * Cache tier list
      * @param filter Game mode filter
      * @param tierList Tier list data
      */
-    public void cacheTierList(String filter, Object tierList) {
+    public void cacheTierList(String filter, List<TierListEntry> tierList) {
+        cacheTierList(filter, tierList, null);
+    }
+
+    /**
+     * Cache tier list along with the validators needed to revalidate it later
+     * @param filter Game mode filter
+     * @param tierList Tier list data
+     * @param validators ETag / Last-Modified of the response, may be null
+     */
+    public void cacheTierList(String filter, List<TierListEntry> tierList, CacheValidators validators) {
         logger.debug("Caching tier list for filter {}", filter);
-        tierListCache.put(filter, new CacheEntry(tierList, tierListCacheDurationMs));
+        CacheEntry entry = new CacheEntry(tierList, tierListCacheDurationMs, staleGraceMs, validators);
+        tierListCache.put(filter, entry);
+        saveRecord(TIER_LISTS, filter, entry, GSON.toJsonTree(tierList, TIER_LIST_TYPE));
+    }
+
+    /**
+     * Check whether a cached tier list is stale and should be refreshed in the background
+     * Returns true at most once per retry interval, so concurrent readers trigger a single refresh
+     * @param filter Game mode filter
+     */
+    public boolean claimTierListRefresh(String filter) {
+        CacheEntry entry = tierListCache.peek(filter);
+        return entry != null && !entry.isExpired() && entry.claimRefresh();
+    }
+
+    /**
+     * Get the validators of a cached tier list, even if it has expired
+     * @param filter Game mode filter
+     * @return Validators, or null if nothing revalidatable is cached
+     */
+    public CacheValidators getTierListValidators(String filter) {
+        CacheEntry entry = tierListCache.peek(filter);
+        return entry != null ? entry.getValidators() : null;
+    }
+
+    /**
+     * Renew a cached tier list after a 304 Not Modified response
+     * @param filter Game mode filter
+     * @return The cached tier list, or null if it is no longer cached
+     */
+    @SuppressWarnings("unchecked")
+    public List<TierListEntry> renewTierList(String filter) {
+        CacheEntry entry = tierListCache.peek(filter);
+        if (entry == null) {
+            return null;
+        }
+
+        logger.debug("Tier list for filter {} not modified, renewing cache", filter);
+        entry.renew(tierListCacheDurationMs, staleGraceMs);
+        saveRecord(TIER_LISTS, filter, entry, GSON.toJsonTree(entry.getData(), TIER_LIST_TYPE));
+        return (List<TierListEntry>) entry.getData();
+    }
+
+    private static void recordMiss(CacheMetrics metrics, CacheEntry entry) {
+        if (entry != null) {
+            metrics.recordExpiration();
+        } else {
+            metrics.recordMiss();
+        }
+    }
+
+    public CacheMetrics getUuidMetrics() {
+        return uuidMetrics;
+    }
+
+    public CacheMetrics getUsernameMetrics() {
+        return usernameMetrics;
+    }
+
+    public CacheMetrics getPlayerDataMetrics() {
+        return playerDataMetrics;
+    }
+
+    public CacheMetrics getTierListMetrics() {
+        return tierListMetrics;
+    }
+
+    /**
+     * Get the metrics of every region, in display order
+     */
+    public List<CacheMetrics> getAllMetrics() {
+        return List.of(uuidMetrics, usernameMetrics, playerDataMetrics, tierListMetrics);
+    }
+
+    /**
+     * Remember that Mojang has no account with this username
+     */
+    public void cacheMissingUUID(String username) {
+        cacheMiss("uuid:" + username.toLowerCase());
+    }
+
+    /**
+     * Check whether a username recently turned out not to exist
+     */
+    public boolean isUUIDKnownMissing(String username) {
+        return isKnownMiss("uuid:" + username.toLowerCase());
+    }
+
+    /**
+     * Remember that the tier API has no profile for this player
+     */
+    public void cacheMissingPlayerData(String uuid) {
+        cacheMiss("player:" + uuid.toLowerCase());
+    }
+
+    /**
+     * Check whether a player recently turned out to have no profile
+     */
+    public boolean isPlayerDataKnownMissing(String uuid) {
+        return isKnownMiss("player:" + uuid.toLowerCase());
+    }
+
+    private void cacheMiss(String key) {
+        if (missCacheDurationMs > 0) {
+            logger.debug("Caching miss for {}", key);
+            missCache.put(key, System.currentTimeMillis() + missCacheDurationMs);
+        }
+    }
+
+    private boolean isKnownMiss(String key) {
+        Long expiry = missCache.get(key);
+        if (expiry == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() > expiry) {
+            missCache.remove(key, expiry);
+            return false;
+        }
+
+        missHits.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Start removing expired entries in the background
+     * Otherwise an expired entry only goes away when its own key is read again, and players nobody looks up
+     * again stay in memory for the whole session
+     */
+    public synchronized void startExpirySweeper() {
+        if (sweeper == null) {
+            sweeper = ModExecutors.repeating(this::sweepExpired, SWEEP_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    public synchronized void stopExpirySweeper() {
+        if (sweeper != null) {
+            sweeper.cancel(false);
+            sweeper = null;
+        }
+    }
+
+    /**
+     * Remove expired entries from every region, examining a bounded number per region
+     * @return Number of entries removed
+     */
+    public int sweepExpired() {
+        int removed = uuidCache.sweep(this::isSweepable, SWEEP_BATCH_SIZE)
+                + usernameCache.sweep(this::isSweepable, SWEEP_BATCH_SIZE)
+                + playerDataCache.sweep(this::isSweepable, SWEEP_BATCH_SIZE)
+                + tierListCache.sweep(this::isSweepable, SWEEP_BATCH_SIZE);
+
+        long now = System.currentTimeMillis();
+        removed += missCache.sweep(expiry -> now > expiry, SWEEP_BATCH_SIZE);
+
+        if (removed > 0) {
+            logger.debug("Swept {} expired cache entries", removed);
+        }
+        return removed;
+    }
+
+    /**
+     * Whether an entry is no use in memory anymore: expired, and not worth keeping to revalidate
+     * Revalidatable entries are only dropped when the disk cache still has them to restore
+     */
+    private boolean isSweepable(CacheEntry entry) {
+        return entry.isExpired() && (entry.getValidators() == null || diskCache != null);
     }
 
     /**
@@ -158,28 +773,41 @@ public class PlayerDataCache {
     public void clearAllCaches() {
         logger.info("Clearing all caches");
         uuidCache.clear();
+        usernameCache.clear();
         playerDataCache.clear();
         tierListCache.clear();
+        missCache.clear();
+        if (diskCache != null) {
+            ModExecutors.background().execute(diskCache::clear);
+        }
+    }
+
+    /**
+     * Write anything still pending to disk; called when the game is closing
+     */
+    public void flush() {
+        if (diskCache != null) {
+            diskCache.flush();
+        }
     }
 
     /**
      * Get cache statistics
+     * Built from counters, so it is cheap enough to call often; entry counts include expired entries not yet removed
      * @return Cache statistics in human-readable format
      */
     public String getStatistics() {
-        int activeUuidEntries = (int) uuidCache.entrySet().stream()
-                .filter(e -> !e.getValue().isExpired())
-                .count();
-
-        int activePlayerDataEntries = (int) playerDataCache.entrySet().stream()
-                .filter(e -> !e.getValue().isExpired())
-                .count();
-
-        int activeTierListEntries = (int) tierListCache.entrySet().stream()
-                .filter(e -> !e.getValue().isExpired())
-                .count();
+        StringBuilder stats = new StringBuilder("Cache Stats:");
+        long weight = 0;
+        long evictions = 0;
+        for (CacheMetrics metrics : getAllMetrics()) {
+            stats.append(String.format(" %s=%d (%.0f%% hits),",
+                    metrics.getName(), metrics.getSize(), metrics.getHitRate() * 100));
+            weight += metrics.getWeightedSize();
+            evictions += metrics.getEvictionCount();
+        }
 
-        return String.format("Cache Stats: UUID=%d, PlayerData=%d, TierList=%d",
-                activeUuidEntries, activePlayerDataEntries, activeTierListEntries);
+        return stats.append(String.format(" Weight=%d, Evicted=%d, KnownMisses=%d (%d lookups saved)",
+                weight, evictions, missCache.size(), missHits.get())).toString();
     }
 }
\ No newline at end of file
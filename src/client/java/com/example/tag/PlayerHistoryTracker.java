@@ -2,9 +2,6 @@ package com.example.tag;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonElement;
 import com.google.gson.reflect.TypeToken;
 import net.fabricmc.loader.api.FabricLoader;
 import org.slf4j.Logger;
@@ -16,6 +13,7 @@ import java.io.IOException;
 import java.lang.reflect.Type;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Tracks player tier history over time
@@ -25,8 +23,8 @@ public class PlayerHistoryTracker {
     private static final File HISTORY_FILE = FabricLoader.getInstance().getConfigDir().resolve("is-tier-tagger-history.json").toFile();
     private final Logger logger;
 
-    // Map of player UUID to their historical data
-    private Map<String, PlayerHistory> playerHistories = new HashMap<>();
+    // Map of player UUID to their historical data; read from network threads by identity lookups
+    private Map<String, PlayerHistory> playerHistories = new ConcurrentHashMap<>();
 
     public PlayerHistoryTracker(Logger logger) {
         this.logger = logger;
@@ -155,105 +153,42 @@ public class PlayerHistoryTracker {
     /**
      * Record player data from API response
      */
-    public void recordPlayerData(String uuid, String username, JsonObject playerData) {
+    public void recordPlayerData(String uuid, String username, PlayerTierProfile playerData) {
         try {
             if (playerData == null) {
                 logger.error("Failed to record player data - null data");
                 return;
             }
 
-            // Log the playerData structure to debug
-            logger.debug("Recording player data for {}: {}", username, playerData.toString().substring(0, Math.min(100, playerData.toString().length())));
-
-            // Check if playerData has userData
-            if (!playerData.has("userData")) {
-                logger.error("Player data missing userData field");
-                return;
-            }
-
-            JsonElement userDataElement = playerData.get("userData");
-            if (!userDataElement.isJsonObject()) {
-                logger.error("userData is not a JsonObject");
-                return;
-            }
-
-            JsonObject userData = userDataElement.getAsJsonObject();
-
-            // Check if userData has stats
-            if (!userData.has("stats")) {
-                logger.error("userData missing stats field");
-                return;
-            }
-
-            JsonElement statsElement = userData.get("stats");
-            if (!statsElement.isJsonArray()) {
-                logger.error("stats is not a JsonArray");
-                return;
-            }
-
-            JsonArray stats = statsElement.getAsJsonArray();
-
-            if (stats.size() == 0) {
-                logger.error("stats array is empty");
-                return;
-            }
-
             // Get or create player history
             PlayerHistory history = playerHistories.getOrDefault(uuid, new PlayerHistory(uuid, username));
 
-            JsonElement statsObjectElement = stats.get(0);
-            if (!statsObjectElement.isJsonObject()) {
-                logger.error("stats[0] is not a JsonObject");
-                return;
-            }
-
-            JsonObject gameStats = statsObjectElement.getAsJsonObject();
-            IsrealTiersApiService apiService = new IsrealTiersApiService(logger);
+            IsrealTiersApiService apiService = IstiertaggerClient.getInstance().getApiService();
             long currentTime = System.currentTimeMillis();
 
             // Process each game mode
-            for (String gameMode : new String[]{"crystal", "sword", "uhc", "pot", "smp"}) {
-                if (gameStats.has(gameMode)) {
-                    JsonElement modeStatsElement = gameStats.get(gameMode);
-
-                    if (!modeStatsElement.isJsonArray()) {
-                        logger.debug("Game mode {} is not a JsonArray or does not exist", gameMode);
-                        continue;
-                    }
-
-                    JsonArray modeStats = modeStatsElement.getAsJsonArray();
-
-                    if (modeStats.size() > 0) {
-                        JsonElement statElement = modeStats.get(0);
-
-                        if (!statElement.isJsonObject()) {
-                            logger.debug("Game mode {} stats[0] is not a JsonObject", gameMode);
-                            continue;
-                        }
-
-                        JsonObject stat = statElement.getAsJsonObject();
-
-                        if (stat.has("tier")) {
-                            String tier = stat.get("tier").getAsString();
+            for (String gameMode : PlayerTierProfile.GAME_MODES) {
+                String tier = playerData.getTier(gameMode);
+                if (tier == null) {
+                    continue;
+                }
 
-                            if (!tier.isEmpty()) {
-                                int points = apiService.getPointsForTier(tier);
+                int points = apiService.getPointsForTier(tier);
 
-                                // Create and add a new snapshot
-                                TierSnapshot snapshot = new TierSnapshot(currentTime, tier, points, gameMode);
-                                history.addTierSnapshot(gameMode, snapshot);
+                // Create and add a new snapshot
+                TierSnapshot snapshot = new TierSnapshot(currentTime, tier, points, gameMode);
+                history.addTierSnapshot(gameMode, snapshot);
 
-                                logger.debug("Added tier snapshot for {}, game mode {}: {}", username, gameMode, tier);
-                            }
-                        }
-                    }
-                }
+                logger.debug("Added tier snapshot for {}, game mode {}: {}", username, gameMode, tier);
             }
 
             // Save the player history
             playerHistories.put(uuid, history);
             saveHistory();
 
+            // Let the nametag show the new tiers instead of whatever it cached before
+            TierDisplayManager.invalidatePlayer(uuid);
+
         } catch (Exception e) {
             logger.error("Error recording player history data", e);
         }
@@ -266,6 +201,27 @@ public class PlayerHistoryTracker {
         return playerHistories.get(uuid);
     }
 
+    /**
+     * Find a tracked player by the username they had when last recorded
+     * @return The player's history, or null if nobody with that name is tracked
+     */
+    public PlayerHistory findByUsername(String username) {
+        for (PlayerHistory history : playerHistories.values()) {
+            if (username.equalsIgnoreCase(history.getUsername())) {
+                return history;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get every player with recorded history
+     * @return Snapshot of the tracked players
+     */
+    public Collection<PlayerHistory> getTrackedPlayers() {
+        return new ArrayList<>(playerHistories.values());
+    }
+
     /**
      * Load history from file
      */
@@ -276,19 +232,20 @@ public class PlayerHistoryTracker {
                 Map<String, PlayerHistory> loaded = GSON.fromJson(reader, type);
 
                 if (loaded != null) {
-                    playerHistories = loaded;
+                    loaded.values().removeIf(Objects::isNull);
+                    playerHistories = new ConcurrentHashMap<>(loaded);
                     logger.info("Loaded history data for {} players", playerHistories.size());
                 } else {
                     logger.warn("Loaded history data was null, starting with empty history");
-                    playerHistories = new HashMap<>();
+                    playerHistories = new ConcurrentHashMap<>();
                 }
             } catch (IOException | com.google.gson.JsonSyntaxException e) {
                 logger.error("Failed to load player history", e);
-                playerHistories = new HashMap<>();
+                playerHistories = new ConcurrentHashMap<>();
             }
         } else {
             logger.info("No history file found, starting with empty history");
-            playerHistories = new HashMap<>();
+            playerHistories = new ConcurrentHashMap<>();
         }
     }
 
@@ -323,7 +280,7 @@ public class PlayerHistoryTracker {
 
         String highestTier = null;
         int highestPoints = -1;
-        IsrealTiersApiService apiService = new IsrealTiersApiService(logger);
+        IsrealTiersApiService apiService = IstiertaggerClient.getInstance().getApiService();
 
         for (String gameMode : new String[]{"crystal", "sword", "uhc", "pot", "smp"}) {
             List<TierSnapshot> snapshots = history.getTierSnapshots(gameMode);
@@ -0,0 +1,197 @@
+package com.example.tag;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Username lookup over data the client already has: players on the server, tracked history and cached tier lists
+ * Names are kept in a sorted array, so finding the best match for a prefix is a binary search plus a short scan
+ * and is cheap enough to run on every keystroke; the array is rebuilt in the background and swapped in whole
+ */
+public class PlayerSearchIndex {
+    // Rebuild at most this often; the sources change slowly compared to typing
+    private static final long REBUILD_INTERVAL_MS = 5000;
+
+    // Matches examined per query; prefixes this unspecific aren't worth ranking exhaustively
+    private static final int MAX_SCANNED = 64;
+
+    /**
+     * Where a candidate was found; earlier sources rank higher
+     */
+    public enum Source {
+        ONLINE,
+        HISTORY,
+        TIER_LIST
+    }
+
+    private final IsrealTiersApiService apiService;
+    private final OnlinePlayerTracker onlinePlayers;
+    private final PlayerHistoryTracker historyTracker;
+    private final String[] gameModes;
+
+    // Replaced as a whole on rebuild, so a query never sees names and candidates from different builds
+    private volatile Snapshot snapshot = new Snapshot(new String[0], new Candidate[0], 0);
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+
+    /**
+     * @param onlinePlayers May be null
+     * @param historyTracker May be null if history tracking is off
+     */
+    public PlayerSearchIndex(IsrealTiersApiService apiService, OnlinePlayerTracker onlinePlayers,
+                             PlayerHistoryTracker historyTracker, String[] gameModes) {
+        this.apiService = apiService;
+        this.onlinePlayers = onlinePlayers;
+        this.historyTracker = historyTracker;
+        this.gameModes = gameModes;
+    }
+
+    /**
+     * Find the best local match for what the user has typed so far
+     * Only reads the current index; if it is outdated a rebuild is started for the following keystrokes
+     * Exact names win, then players online, then tracked players, then the shortest name
+     * @return Best candidate, or null if no known player starts with the query
+     */
+    public Candidate findBest(String query) {
+        if (query == null || query.isEmpty()) {
+            return null;
+        }
+
+        Snapshot current = this.snapshot;
+        if (System.currentTimeMillis() - current.builtAt >= REBUILD_INTERVAL_MS) {
+            refresh();
+        }
+
+        String[] names = current.names;
+        Candidate[] candidates = current.candidates;
+        String prefix = query.toLowerCase();
+        int index = Arrays.binarySearch(names, prefix);
+        if (index >= 0) {
+            return candidates[index];
+        }
+
+        Candidate best = null;
+        int end = Math.min(names.length, -index - 1 + MAX_SCANNED);
+        for (int i = -index - 1; i < end && names[i].startsWith(prefix); i++) {
+            Candidate candidate = candidates[i];
+            if (best == null || isBetter(candidate, best)) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    private static boolean isBetter(Candidate candidate, Candidate best) {
+        if (candidate.source != best.source) {
+            return candidate.source.ordinal() < best.source.ordinal();
+        }
+        return candidate.username.length() < best.username.length();
+    }
+
+    /**
+     * Rebuild the index in the background, unless a rebuild is already running
+     * Queries keep answering from the previous index until the new one is ready
+     */
+    public void refresh() {
+        if (rebuilding.compareAndSet(false, true)) {
+            CompletableFuture.runAsync(this::rebuild, ModExecutors.background())
+                    .whenComplete((ignored, error) -> rebuilding.set(false));
+        }
+    }
+
+    /**
+     * Collect candidates from every local source
+     * Every source is safe to read off the client thread
+     */
+    private void rebuild() {
+        Map<String, Candidate> byName = new HashMap<>();
+
+        if (onlinePlayers != null) {
+            onlinePlayers.getSnapshot().forEach((uuid, username) -> add(byName, uuid, username, Source.ONLINE));
+        }
+
+        if (historyTracker != null) {
+            for (PlayerHistoryTracker.PlayerHistory history : historyTracker.getTrackedPlayers()) {
+                add(byName, history.getUuid(), history.getUsername(), Source.HISTORY);
+            }
+        }
+
+        for (String mode : gameModes) {
+            List<TierListEntry> tierList = apiService.getCachedTierList(mode);
+            if (tierList == null) {
+                continue;
+            }
+            for (TierListEntry entry : tierList) {
+                // Tier list entries usually carry only a UUID; use the name if it has been resolved
+                String username = entry.getUsername() != null
+                        ? entry.getUsername()
+                        : apiService.getCachedUsername(entry.getUuid());
+                add(byName, entry.getUuid(), username, Source.TIER_LIST);
+            }
+        }
+
+        List<String> sortedNames = new ArrayList<>(byName.keySet());
+        sortedNames.sort(null);
+
+        Candidate[] sortedCandidates = new Candidate[sortedNames.size()];
+        for (int i = 0; i < sortedCandidates.length; i++) {
+            sortedCandidates[i] = byName.get(sortedNames.get(i));
+        }
+
+        this.snapshot = new Snapshot(sortedNames.toArray(new String[0]), sortedCandidates, System.currentTimeMillis());
+    }
+
+    private static void add(Map<String, Candidate> byName, String uuid, String username, Source source) {
+        if (uuid == null || username == null || username.equalsIgnoreCase(uuid)) {
+            return;
+        }
+        // Sources are added best first, so the first one seen is kept
+        byName.putIfAbsent(username.toLowerCase(), new Candidate(uuid, username, source));
+    }
+
+    /**
+     * Sorted lowercase names, the candidate for each, and when they were collected
+     */
+    private static class Snapshot {
+        private final String[] names;
+        private final Candidate[] candidates;
+        private final long builtAt;
+
+        private Snapshot(String[] names, Candidate[] candidates, long builtAt) {
+            this.names = names;
+            this.candidates = candidates;
+            this.builtAt = builtAt;
+        }
+    }
+
+    /**
+     * A known player that matches a query
+     */
+    public static class Candidate {
+        private final String uuid;
+        private final String username;
+        private final Source source;
+
+        public Candidate(String uuid, String username, Source source) {
+            this.uuid = uuid;
+            this.username = username;
+            this.source = source;
+        }
+
+        public String getUuid() {
+            return uuid;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public Source getSource() {
+            return source;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.tag;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.Arrays;
+
+/**
+ * A player's tiers in every game mode, parsed once from the API response
+ * Tiers are stored as indexes into TIERS and timestamps as primitives, so cached profiles stay small
+ * and reading a tier doesn't walk a JSON tree
+ */
+public final class PlayerTierProfile {
+    /**
+     * Game modes in the order the tiers are stored
+     */
+    public static final String[] GAME_MODES = {"crystal", "sword", "uhc", "pot", "smp"};
+
+    /**
+     * Known tiers, best first; a profile stores the index into this array
+     */
+    private static final String[] TIERS = {"HT1", "LT1", "HT2", "LT2", "HT3", "LT3", "HT4", "LT4", "HT5", "LT5", "LT69"};
+
+    private static final byte NO_TIER = -1;
+    // Tier the API sent that isn't in TIERS; the text is kept in otherTiers
+    private static final byte OTHER_TIER = -2;
+
+    private final String uuid;
+    private final String discordId;
+    private final byte[] tiers;
+    private final long[] lastUpdates;
+    // Only allocated for tiers outside TIERS
+    private final String[] otherTiers;
+
+    /**
+     * @param tiers Tier per game mode in GAME_MODES order, null or empty for none
+     * @param lastUpdates Unix seconds of the last change per game mode, 0 if unknown
+     */
+    public PlayerTierProfile(String uuid, String discordId, String[] tiers, long[] lastUpdates) {
+        this.uuid = uuid;
+        this.discordId = discordId;
+        this.tiers = new byte[GAME_MODES.length];
+        this.lastUpdates = Arrays.copyOf(lastUpdates, GAME_MODES.length);
+
+        String[] others = null;
+        for (int i = 0; i < GAME_MODES.length; i++) {
+            String tier = tiers[i];
+            int index = indexOfTier(tier);
+            if (index >= 0) {
+                this.tiers[i] = (byte) index;
+            } else if (tier == null || tier.isEmpty()) {
+                this.tiers[i] = NO_TIER;
+            } else {
+                if (others == null) {
+                    others = new String[GAME_MODES.length];
+                }
+                others[i] = tier;
+                this.tiers[i] = OTHER_TIER;
+            }
+        }
+        this.otherTiers = others;
+    }
+
+    /**
+     * Parse a player response from the Israel Tiers API
+     * Expects {"id", "userData": {"discordId", "stats": [{mode: [{"tier", "lastupdate"}]}]}}; missing parts are left empty
+     */
+    public static PlayerTierProfile fromJson(JsonObject data) {
+        String uuid = getString(data, "id");
+        String discordId = null;
+        String[] tiers = new String[GAME_MODES.length];
+        long[] lastUpdates = new long[GAME_MODES.length];
+
+        JsonObject userData = getObject(data, "userData");
+        if (userData != null) {
+            discordId = getString(userData, "discordId");
+
+            JsonElement stats = userData.get("stats");
+            if (stats != null && stats.isJsonArray() && !stats.getAsJsonArray().isEmpty()
+                    && stats.getAsJsonArray().get(0).isJsonObject()) {
+                JsonObject gameStats = stats.getAsJsonArray().get(0).getAsJsonObject();
+
+                for (int i = 0; i < GAME_MODES.length; i++) {
+                    JsonElement modeStats = gameStats.get(GAME_MODES[i]);
+                    if (modeStats == null || !modeStats.isJsonArray() || modeStats.getAsJsonArray().isEmpty()
+                            || !modeStats.getAsJsonArray().get(0).isJsonObject()) {
+                        continue;
+                    }
+
+                    JsonObject stat = modeStats.getAsJsonArray().get(0).getAsJsonObject();
+                    tiers[i] = getString(stat, "tier");
+                    lastUpdates[i] = parseTimestamp(getString(stat, "lastupdate"));
+                }
+            }
+        }
+
+        return new PlayerTierProfile(uuid, discordId, tiers, lastUpdates);
+    }
+
+    /**
+     * Convert back to the API's response shape, e.g. for the disk cache
+     */
+    public JsonObject toJson() {
+        JsonObject gameStats = new JsonObject();
+        for (int i = 0; i < GAME_MODES.length; i++) {
+            if (tiers[i] == NO_TIER && lastUpdates[i] == 0) {
+                continue;
+            }
+            JsonObject stat = new JsonObject();
+            stat.addProperty("tier", tiers[i] == NO_TIER ? "" : getTierAt(i));
+            stat.addProperty("lastupdate", String.valueOf(lastUpdates[i]));
+
+            JsonArray modeStats = new JsonArray();
+            modeStats.add(stat);
+            gameStats.add(GAME_MODES[i], modeStats);
+        }
+
+        JsonArray stats = new JsonArray();
+        stats.add(gameStats);
+
+        JsonObject userData = new JsonObject();
+        if (discordId != null) {
+            userData.addProperty("discordId", discordId);
+        }
+        userData.add("stats", stats);
+
+        JsonObject data = new JsonObject();
+        if (uuid != null) {
+            data.addProperty("id", uuid);
+        }
+        data.add("userData", userData);
+        return data;
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    /**
+     * @return Discord user id, or null if the API didn't send one
+     */
+    public String getDiscordId() {
+        return discordId;
+    }
+
+    /**
+     * @return Tier such as "HT3", or null if the player has no tier in this mode
+     */
+    public String getTier(String gameMode) {
+        int index = indexOfMode(gameMode);
+        return index >= 0 ? getTierAt(index) : null;
+    }
+
+    /**
+     * @return Unix seconds of the last tier change in this mode, or 0 if unknown
+     */
+    public long getLastUpdate(String gameMode) {
+        int index = indexOfMode(gameMode);
+        return index >= 0 ? lastUpdates[index] : 0;
+    }
+
+    /**
+     * Whether the API had any entry for this mode, even an empty one
+     */
+    public boolean hasStats(String gameMode) {
+        int index = indexOfMode(gameMode);
+        return index >= 0 && (tiers[index] != NO_TIER || lastUpdates[index] != 0);
+    }
+
+    public boolean hasAnyTier() {
+        for (byte tier : tiers) {
+            if (tier != NO_TIER) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String getTierAt(int modeIndex) {
+        byte tier = tiers[modeIndex];
+        if (tier == NO_TIER) {
+            return null;
+        }
+        return tier == OTHER_TIER ? otherTiers[modeIndex] : TIERS[tier];
+    }
+
+    private static int indexOfMode(String gameMode) {
+        for (int i = 0; i < GAME_MODES.length; i++) {
+            if (GAME_MODES[i].equalsIgnoreCase(gameMode)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOfTier(String tier) {
+        if (tier == null) {
+            return -1;
+        }
+        for (int i = 0; i < TIERS.length; i++) {
+            if (TIERS[i].equals(tier)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long parseTimestamp(String timestamp) {
+        if (timestamp == null || timestamp.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(timestamp);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static JsonObject getObject(JsonObject parent, String key) {
+        JsonElement element = parent.get(key);
+        return element != null && element.isJsonObject() ? element.getAsJsonObject() : null;
+    }
+
+    private static String getString(JsonObject parent, String key) {
+        JsonElement element = parent.get(key);
+        return element != null && element.isJsonPrimitive() ? element.getAsString() : null;
+    }
+}
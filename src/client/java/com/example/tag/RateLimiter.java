@@ -0,0 +1,69 @@
+package com.example.tag;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket rate limiter
+ * Requests take one token each; tokens refill at a fixed rate up to the bucket capacity
+ */
+public class RateLimiter {
+    private final double capacity;
+    private final double refillPerNano;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    /**
+     * @param capacity Maximum burst size
+     * @param permitsPerSecond Sustained request rate
+     */
+    public RateLimiter(int capacity, double permitsPerSecond) {
+        this.capacity = capacity;
+        this.refillPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Reserve a token, borrowing from the future if the bucket is empty
+     * @param maxWaitMs Longest acceptable wait
+     * @return Milliseconds to wait before sending, or -1 if that would exceed maxWaitMs (nothing is reserved then)
+     */
+    public synchronized long reserve(long maxWaitMs) {
+        refill();
+
+        tokens -= 1;
+        if (tokens >= 0) {
+            return 0;
+        }
+
+        long waitMs = TimeUnit.NANOSECONDS.toMillis((long) Math.ceil(-tokens / refillPerNano));
+        if (waitMs > maxWaitMs) {
+            tokens += 1;
+            return -1;
+        }
+        return waitMs;
+    }
+
+    /**
+     * Give back a reserved token that went unused, e.g. because its request was cancelled while waiting
+     */
+    public synchronized void release() {
+        refill();
+        tokens = Math.min(capacity, tokens + 1);
+    }
+
+    /**
+     * Get the number of tokens currently available, negative when callers are queued
+     */
+    public synchronized double getAvailableTokens() {
+        refill();
+        return tokens;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * refillPerNano);
+        lastRefillNanos = now;
+    }
+}
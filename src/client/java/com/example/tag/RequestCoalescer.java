@@ -0,0 +1,130 @@
+package com.example.tag;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight table for network lookups
+ * Concurrent callers asking for the same key attach to the pending request instead of issuing a new one
+ * The request is cancelled once every caller attached to it has cancelled its future
+ */
+public class RequestCoalescer {
+    private final ConcurrentHashMap<String, Flight<?>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Run the loader for this key unless a request for it is already pending
+     * @param key Request key, e.g. "player:" + uuid
+     * @param loader Starts the actual request; only called by the first caller
+     * @return A future for this caller that completes with the shared result; cancelling it detaches this caller
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> coalesce(String key, Supplier<CompletableFuture<T>> loader) {
+        while (true) {
+            Flight<T> created = new Flight<>();
+            Flight<T> existing = (Flight<T>) inFlight.putIfAbsent(key, created);
+
+            if (existing == null) {
+                CompletableFuture<T> subscription = subscribe(key, created);
+                start(key, created, loader);
+                return subscription;
+            }
+
+            CompletableFuture<T> subscription = subscribe(key, existing);
+            if (subscription != null) {
+                return subscription;
+            }
+
+            // Every caller of that request cancelled just now; replace it with a fresh one
+            inFlight.remove(key, existing);
+        }
+    }
+
+    private <T> void start(String key, Flight<T> flight, Supplier<CompletableFuture<T>> loader) {
+        CompletableFuture<T> source;
+        try {
+            source = loader.get();
+        } catch (Throwable t) {
+            source = CompletableFuture.failedFuture(t);
+        }
+
+        boolean abandoned;
+        synchronized (flight) {
+            flight.source = source;
+            abandoned = flight.abandoned;
+        }
+        if (abandoned) {
+            // The last caller cancelled while the loader was still running and saw no source to cancel
+            source.cancel(true);
+        }
+
+        source.whenComplete((result, error) -> {
+            // Remove before completing so callers arriving afterwards start a fresh request
+            inFlight.remove(key, flight);
+            if (error != null) {
+                flight.shared.completeExceptionally(error);
+            } else {
+                flight.shared.complete(result);
+            }
+        });
+    }
+
+    /**
+     * Attach a caller to a pending request
+     * @return The caller's future, or null if the request was already abandoned
+     */
+    private <T> CompletableFuture<T> subscribe(String key, Flight<T> flight) {
+        synchronized (flight) {
+            if (flight.abandoned) {
+                return null;
+            }
+            flight.subscribers++;
+        }
+
+        // Hand out a copy so one caller can't complete the shared future for everyone
+        CompletableFuture<T> subscription = flight.shared.copy();
+        subscription.whenComplete((result, error) -> {
+            if (subscription.isCancelled()) {
+                unsubscribe(key, flight);
+            }
+        });
+        return subscription;
+    }
+
+    private void unsubscribe(String key, Flight<?> flight) {
+        CompletableFuture<?> source;
+        synchronized (flight) {
+            flight.subscribers--;
+            if (flight.subscribers > 0 || flight.shared.isDone()) {
+                return;
+            }
+            flight.abandoned = true;
+            source = flight.source;
+        }
+
+        inFlight.remove(key, flight);
+        if (source != null) {
+            source.cancel(true);
+        }
+        flight.shared.cancel(true);
+    }
+
+    /**
+     * Get the number of requests currently pending
+     */
+    public int size() {
+        return inFlight.size();
+    }
+
+    /**
+     * One pending request and the callers waiting for it
+     */
+    private static class Flight<T> {
+        private final CompletableFuture<T> shared = new CompletableFuture<>();
+
+        // Guarded by this
+        private CompletableFuture<T> source;
+        private int subscribers = 0;
+        private boolean abandoned = false;
+    }
+}
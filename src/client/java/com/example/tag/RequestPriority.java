@@ -0,0 +1,21 @@
+package com.example.tag;
+
+/**
+ * How urgently a network request is needed, most urgent first
+ */
+public enum RequestPriority {
+    /**
+     * Someone is waiting on the result: commands, searches, menu lookups
+     */
+    INTERACTIVE,
+
+    /**
+     * Fills something on screen: leaderboards, names in lists
+     */
+    VISIBLE,
+
+    /**
+     * Nobody is waiting: prefetches and stale-cache refreshes
+     */
+    BACKGROUND
+}
@@ -0,0 +1,252 @@
+package com.example.tag;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Limits how many requests run at once and decides which queued request goes next
+ * Higher priority requests go first, but a waiting request gains one priority class per aging step,
+ * so background work still drains while interactive lookups keep jumping ahead
+ */
+public class RequestScheduler {
+    // Waiting this long counts as much as one priority class
+    private static final long AGING_STEP_MS = 2000;
+
+    private final int maxConcurrent;
+    private final int reservedForInteractive;
+
+    // Guarded by queue
+    private final PriorityQueue<Task<?>> queue = new PriorityQueue<>(
+            Comparator.comparingLong((Task<?> task) -> task.rank).thenComparingLong(task -> task.sequence));
+    private final Map<String, Task<?>> queuedByKey = new HashMap<>();
+    private final Map<String, Task<?>> activeByKey = new HashMap<>();
+    private int active = 0;
+    private long nextSequence = 0;
+
+    /**
+     * @param maxConcurrent Requests allowed in flight at once
+     * @param reservedForInteractive Slots that only interactive requests may use, so they never wait behind bulk work
+     */
+    public RequestScheduler(int maxConcurrent, int reservedForInteractive) {
+        this.maxConcurrent = maxConcurrent;
+        this.reservedForInteractive = reservedForInteractive;
+    }
+
+    /**
+     * Run a request once a slot is free
+     * @param key Identifies the request so later callers can promote it, may be null
+     * @param request Starts the request; the slot is held until its future completes
+     * @return Future completing with the request's result; cancelling it dequeues or aborts the request
+     */
+    public <T> CompletableFuture<T> submit(String key, RequestPriority priority, Supplier<CompletableFuture<T>> request) {
+        Task<T> task = new Task<>(key, priority, request);
+        task.result.whenComplete((value, error) -> {
+            if (task.result.isCancelled()) {
+                abort(task);
+            }
+        });
+
+        synchronized (queue) {
+            task.sequence = nextSequence++;
+            queue.add(task);
+            if (key != null) {
+                queuedByKey.put(key, task);
+            }
+        }
+
+        // Starts this request right away if it is next in line and a slot is free
+        drain();
+        return task.result;
+    }
+
+    /**
+     * Raise a queued request to a more urgent priority, e.g. when a user asks for something a prefetch already queued
+     * Does nothing if the request isn't queued or already has that priority
+     */
+    public void promote(String key, RequestPriority priority) {
+        synchronized (queue) {
+            Task<?> task = queuedByKey.get(key);
+            if (task == null || priority.ordinal() >= task.priority.ordinal()) {
+                return;
+            }
+
+            queue.remove(task);
+            task.setPriority(priority);
+            queue.add(task);
+        }
+        drain();
+    }
+
+    /**
+     * Cancel the queued or running request with this key, e.g. once nobody is waiting for its result
+     */
+    public void cancel(String key) {
+        Task<?> queued;
+        Task<?> running;
+        synchronized (queue) {
+            queued = queuedByKey.get(key);
+            running = activeByKey.get(key);
+        }
+
+        if (queued != null) {
+            queued.result.cancel(true);
+        }
+        if (running != null) {
+            running.result.cancel(true);
+        }
+    }
+
+    private void abort(Task<?> task) {
+        boolean dequeued;
+        synchronized (queue) {
+            dequeued = queue.remove(task);
+            if (dequeued && task.key != null) {
+                queuedByKey.remove(task.key, task);
+            }
+        }
+
+        // A running request is stopped; its slot is released when it completes
+        CompletableFuture<?> started = task.started;
+        if (!dequeued && started != null) {
+            started.cancel(true);
+        }
+    }
+
+    private boolean canStart(RequestPriority priority) {
+        int limit = priority == RequestPriority.INTERACTIVE ? maxConcurrent : maxConcurrent - reservedForInteractive;
+        return active < limit;
+    }
+
+    private void run(Task<?> task) {
+        task.start().whenComplete((result, error) -> {
+            synchronized (queue) {
+                active--;
+                if (task.key != null) {
+                    activeByKey.remove(task.key, task);
+                }
+            }
+            drain();
+        });
+    }
+
+    /**
+     * Start queued requests while slots are free
+     */
+    private void drain() {
+        while (true) {
+            Task<?> next = null;
+
+            synchronized (queue) {
+                Task<?> head = queue.peek();
+                if (head == null) {
+                    return;
+                }
+
+                if (canStart(head.priority)) {
+                    next = queue.poll();
+                } else if (active < maxConcurrent) {
+                    // The reserved slots are free but the head isn't interactive; look for an interactive request
+                    for (Iterator<Task<?>> it = queue.iterator(); it.hasNext(); ) {
+                        Task<?> candidate = it.next();
+                        if (candidate.priority == RequestPriority.INTERACTIVE) {
+                            it.remove();
+                            next = candidate;
+                            break;
+                        }
+                    }
+                }
+
+                if (next == null) {
+                    return;
+                }
+                if (next.key != null) {
+                    queuedByKey.remove(next.key, next);
+                    activeByKey.put(next.key, next);
+                }
+                active++;
+            }
+
+            run(next);
+        }
+    }
+
+    /**
+     * Describe the scheduler's load
+     * @return e.g. "active=4, queued=7 (INTERACTIVE=0, VISIBLE=2, BACKGROUND=5)"
+     */
+    public String getStatus() {
+        Map<RequestPriority, Integer> queued = new EnumMap<>(RequestPriority.class);
+        for (RequestPriority priority : RequestPriority.values()) {
+            queued.put(priority, 0);
+        }
+
+        synchronized (queue) {
+            for (Task<?> task : queue) {
+                queued.merge(task.priority, 1, Integer::sum);
+            }
+            return String.format("active=%d, queued=%d %s", active, queue.size(), queued);
+        }
+    }
+
+    private static class Task<T> {
+        private final String key;
+        private final Supplier<CompletableFuture<T>> request;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final long enqueuedAt = System.currentTimeMillis();
+        private volatile CompletableFuture<T> started;
+        private RequestPriority priority;
+        private long rank;
+        private long sequence;
+
+        private Task(String key, RequestPriority priority, Supplier<CompletableFuture<T>> request) {
+            this.key = key;
+            this.request = request;
+            setPriority(priority);
+        }
+
+        /**
+         * Queue order: earlier is better, and each priority class is worth one aging step
+         */
+        private void setPriority(RequestPriority priority) {
+            this.priority = priority;
+            this.rank = enqueuedAt + priority.ordinal() * AGING_STEP_MS;
+        }
+
+        /**
+         * Start the request and forward its outcome
+         * @return Future that completes when the slot can be released
+         */
+        private CompletableFuture<T> start() {
+            if (result.isDone()) {
+                // Cancelled between leaving the queue and starting
+                return CompletableFuture.completedFuture(null);
+            }
+
+            CompletableFuture<T> started;
+            try {
+                started = request.get();
+            } catch (Throwable t) {
+                started = CompletableFuture.failedFuture(t);
+            }
+
+            this.started = started;
+            if (result.isCancelled()) {
+                started.cancel(true);
+            }
+
+            return started.whenComplete((value, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.tag;
+
+import net.minecraft.client.MinecraftClient;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Owns the requests a screen or widget starts, so they can be dropped together
+ * Cancelling the scope cancels its pending futures, which aborts requests nobody else is waiting for,
+ * and stops callbacks that arrive afterwards from touching the UI
+ */
+public class RequestScope {
+    private final Set<CompletableFuture<?>> pending = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled = false;
+
+    /**
+     * Cancel the future along with this scope
+     * @return The same future, for chaining
+     */
+    public <T> CompletableFuture<T> track(CompletableFuture<T> future) {
+        if (future.isDone()) {
+            return future;
+        }
+
+        pending.add(future);
+        future.whenComplete((value, error) -> pending.remove(future));
+
+        // The scope may have been cancelled while the future was being added
+        if (cancelled) {
+            future.cancel(true);
+        }
+        return future;
+    }
+
+    /**
+     * Run an action on the client thread, unless the scope is cancelled by the time it gets there
+     */
+    public void runOnClient(Runnable action) {
+        if (cancelled) {
+            return;
+        }
+        MinecraftClient.getInstance().execute(() -> {
+            if (!cancelled) {
+                action.run();
+            }
+        });
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Cancel everything started in this scope
+     */
+    public void cancel() {
+        cancelled = true;
+        for (CompletableFuture<?> future : pending) {
+            future.cancel(true);
+        }
+        pending.clear();
+    }
+
+    /**
+     * Cancel this scope and return a fresh one for the next request, e.g. when a new search replaces the last one
+     */
+    public RequestScope renew() {
+        cancel();
+        return new RequestScope();
+    }
+}
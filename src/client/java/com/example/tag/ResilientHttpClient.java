@@ -0,0 +1,276 @@
+package com.example.tag;
+
+import org.slf4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HttpClient wrapper that protects each remote host with a rate limiter, retries and a circuit breaker
+ * Every request to Israel Tiers or Mojang goes through here
+ */
+public class ResilientHttpClient {
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long BASE_BACKOFF_MS = 500;
+    private static final long MAX_BACKOFF_MS = 8000;
+
+    // Fail instead of queueing a request behind the rate limiter for longer than this
+    private static final long MAX_RATE_LIMIT_WAIT_MS = 15000;
+
+    private static final int FAILURE_THRESHOLD = 5;
+    private static final long OPEN_DURATION_MS = 30000;
+
+    // Host health and request budget, keyed by host name
+    private final Map<String, HostGuard> hosts = new ConcurrentHashMap<>();
+
+    private final HttpClient httpClient;
+    private final Logger logger;
+    private final boolean guarded;
+
+    /**
+     * @param guarded Whether to rate limit hosts and trip their circuit breakers; off for a local fake backend
+     */
+    public ResilientHttpClient(HttpClient httpClient, Logger logger, boolean guarded) {
+        this.httpClient = httpClient;
+        this.logger = logger;
+        this.guarded = guarded;
+    }
+
+    /**
+     * Send a request, retrying 429 and 5xx responses with jittered exponential backoff
+     * The future fails with CircuitOpenException while the host is considered down
+     * Cancelling the future aborts the exchange in progress and any pending retry
+     * @return Future completing with the final response; a 429/5xx is returned once retries run out
+     */
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler) {
+        HostGuard host = hosts.computeIfAbsent(request.uri().getHost(), guarded ? HostGuard::forHost : HostGuard::unguarded);
+        Call call = new Call();
+
+        CompletableFuture<HttpResponse<T>> result = attempt(request, bodyHandler, host, 1, call);
+        result.whenComplete((response, error) -> {
+            if (result.isCancelled()) {
+                call.cancel();
+            }
+        });
+        return result;
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> attempt(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler,
+                                                           HostGuard host, int attempt, Call call) {
+        if (call.cancelled) {
+            return CompletableFuture.failedFuture(new CancellationException());
+        }
+
+        CompletableFuture<Void> permit = acquirePermit(host);
+        call.current = permit;
+        if (call.cancelled) {
+            permit.cancel(true);
+        }
+        return permit.thenCompose(v -> send(request, bodyHandler, host, attempt, call));
+    }
+
+    private CompletableFuture<Void> acquirePermit(HostGuard host) {
+        long waitMs = host.limiter.reserve(MAX_RATE_LIMIT_WAIT_MS);
+        if (waitMs < 0) {
+            return CompletableFuture.failedFuture(new IOException("Rate limit for " + host.name + " exceeded"));
+        }
+        if (waitMs == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        logger.debug("Delaying request to {} by {}ms for rate limit", host.name, waitMs);
+        CompletableFuture<Void> wait = ModExecutors.delay(waitMs);
+        wait.whenComplete((v, error) -> {
+            if (wait.isCancelled()) {
+                // Nobody will use the token; hand it back so requests reserving after this one wait less
+                host.limiter.release();
+            }
+        });
+        return wait;
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> send(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler,
+                                                        HostGuard host, int attempt, Call call) {
+        if (call.cancelled) {
+            return CompletableFuture.failedFuture(new CancellationException());
+        }
+        if (!host.breaker.tryAcquire()) {
+            return CompletableFuture.failedFuture(new CircuitOpenException(host.name, host.breaker.getRemainingOpenMs()));
+        }
+
+        CompletableFuture<HttpResponse<T>> exchange = httpClient.sendAsync(request, bodyHandler);
+        call.current = exchange;
+        if (call.cancelled) {
+            // Cancelled between the check above and the exchange being recorded
+            exchange.cancel(true);
+        }
+
+        return exchange
+                .handle((response, error) -> {
+                    if (call.cancelled) {
+                        // Nobody is waiting for this; a cancelled exchange says nothing about the host's health
+                        host.breaker.recordAbandoned();
+                        if (response != null) {
+                            discard(response);
+                        }
+                        return CompletableFuture.<HttpResponse<T>>failedFuture(new CancellationException());
+                    }
+
+                    if (error != null) {
+                        host.breaker.recordFailure();
+                        Throwable cause = unwrap(error);
+                        if (attempt < MAX_ATTEMPTS && cause instanceof IOException) {
+                            long delayMs = backoffMs(attempt, null);
+                            logger.debug("Request to {} failed ({}), retrying in {}ms", host.name, cause.toString(), delayMs);
+                            return retryLater(request, bodyHandler, host, attempt, delayMs, call);
+                        }
+                        return CompletableFuture.<HttpResponse<T>>failedFuture(cause);
+                    }
+
+                    if (isRetryableStatus(response.statusCode())) {
+                        host.breaker.recordFailure();
+                        if (attempt < MAX_ATTEMPTS) {
+                            long delayMs = backoffMs(attempt, response);
+                            logger.debug("Request to {} returned {}, retrying in {}ms", host.name, response.statusCode(), delayMs);
+                            discard(response);
+                            return retryLater(request, bodyHandler, host, attempt, delayMs, call);
+                        }
+                        return CompletableFuture.completedFuture(response);
+                    }
+
+                    host.breaker.recordSuccess();
+                    return CompletableFuture.completedFuture(response);
+                })
+                .thenCompose(next -> next);
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> retryLater(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler,
+                                                              HostGuard host, int attempt, long delayMs, Call call) {
+        return ModExecutors.delay(delayMs)
+                .thenCompose(v -> attempt(request, bodyHandler, host, attempt + 1, call));
+    }
+
+    /**
+     * Abort outstanding requests and release the client's connections
+     */
+    public void shutdown() {
+        httpClient.shutdownNow();
+    }
+
+    private static boolean isRetryableStatus(int statusCode) {
+        return statusCode == 429 || statusCode >= 500;
+    }
+
+    /**
+     * Exponential backoff with jitter, honouring Retry-After when the server sends one
+     */
+    private static long backoffMs(int attempt, HttpResponse<?> response) {
+        long ceiling = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << (attempt - 1));
+        // Half fixed, half random so clients that failed together don't retry together
+        long delay = ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+
+        if (response != null) {
+            String retryAfter = response.headers().firstValue("Retry-After").orElse(null);
+            if (retryAfter != null) {
+                try {
+                    delay = Math.max(delay, Math.min(MAX_BACKOFF_MS, TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim()))));
+                } catch (NumberFormatException ignored) {
+                    // HTTP-date form, keep our own backoff
+                }
+            }
+        }
+        return delay;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    /**
+     * Release the body of a response we are about to retry
+     */
+    private static void discard(HttpResponse<?> response) {
+        if (response.body() instanceof Closeable closeable) {
+            try {
+                closeable.close();
+            } catch (IOException ignored) {
+                // The connection is cleaned up by the client
+            }
+        }
+    }
+
+    /**
+     * Describe the state of every host contacted so far
+     * @return e.g. "api.mojang.com=CLOSED, israeltiers.com=OPEN(25s)"
+     */
+    public String getStatus() {
+        StringJoiner joiner = new StringJoiner(", ");
+        for (Map.Entry<String, HostGuard> entry : new TreeMap<>(hosts).entrySet()) {
+            CircuitBreaker breaker = entry.getValue().breaker;
+            CircuitBreaker.State state = breaker.getState();
+            joiner.add(state == CircuitBreaker.State.OPEN
+                    ? String.format("%s=OPEN(%ds)", entry.getKey(), breaker.getRemainingOpenMs() / 1000)
+                    : entry.getKey() + "=" + state);
+        }
+        return joiner.length() == 0 ? "none" : joiner.toString();
+    }
+
+    /**
+     * Cancellation state shared by all attempts of one request
+     */
+    private static class Call {
+        private volatile boolean cancelled;
+        // The rate limit wait or HTTP exchange in progress
+        private volatile CompletableFuture<?> current;
+
+        private void cancel() {
+            cancelled = true;
+            CompletableFuture<?> stage = current;
+            if (stage != null) {
+                // Ends the wait, returning its token, or aborts the HTTP exchange and releases its stream
+                stage.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Rate limiter and circuit breaker for one host
+     */
+    private static class HostGuard {
+        private final String name;
+        private final RateLimiter limiter;
+        private final CircuitBreaker breaker;
+
+        private HostGuard(String name, RateLimiter limiter, CircuitBreaker breaker) {
+            this.name = name;
+            this.limiter = limiter;
+            this.breaker = breaker;
+        }
+
+        private static HostGuard forHost(String host) {
+            // Mojang's profile endpoints allow far fewer requests than israeltiers.com
+            RateLimiter limiter = host.endsWith("mojang.com") || host.endsWith("minecraftservices.com")
+                    ? new RateLimiter(10, 3)
+                    : new RateLimiter(10, 5);
+            return new HostGuard(host, limiter, new CircuitBreaker(FAILURE_THRESHOLD, OPEN_DURATION_MS));
+        }
+
+        private static HostGuard unguarded(String host) {
+            // A limiter that never runs dry and a breaker that never opens
+            return new HostGuard(host, new RateLimiter(Integer.MAX_VALUE, Integer.MAX_VALUE),
+                    new CircuitBreaker(Integer.MAX_VALUE, 0));
+        }
+    }
+}
@@ -8,7 +8,6 @@ import net.minecraft.client.gui.screen.Screen;
 import net.minecraft.client.gui.widget.ButtonWidget;
 import net.minecraft.client.gui.widget.TextFieldWidget;
 import net.minecraft.text.Text;
-import org.slf4j.LoggerFactory;
 
 /**
  * Settings screen for the Israel Tier Tagger mod
@@ -58,7 +57,7 @@ public class SettingsScreen extends Screen {
         super(Text.literal("Israel Tier Tagger Settings"));
         this.parent = parent;
         this.config = ModConfig.getInstance();
-        this.apiService = new IsrealTiersApiService(LoggerFactory.getLogger("SettingsScreen"));
+        this.apiService = IstiertaggerClient.getInstance().getApiService();
 
         // Load current settings
         this.autoOpenBrowser = config.isAutoOpenBrowser();
@@ -320,6 +319,26 @@ public class SettingsScreen extends Screen {
                 textPrimaryColor
         );
 
+        // How well the current durations work, next to the fields that set them
+        if (this.apiService != null) {
+            int metricsX = windowX + 20 + 150 + 50 + 10;
+            int metricsColor = config.getColor("text_secondary", 0xAAAAAA);
+            DirectTextRenderer.drawText(
+                    context,
+                    formatMetrics(this.apiService.getPlayerDataCacheMetrics()),
+                    metricsX,
+                    textFieldY + textFieldSpacing + 6,
+                    metricsColor
+            );
+            DirectTextRenderer.drawText(
+                    context,
+                    formatMetrics(this.apiService.getTierListCacheMetrics()),
+                    metricsX,
+                    textFieldY + textFieldSpacing * 2 + 6,
+                    metricsColor
+            );
+        }
+
         // Add warning message if Discord is enabled but JDA is not available
         if (this.discordEnabled && isDiscordAvailable()) {
             DirectTextRenderer.drawText(
@@ -418,6 +437,16 @@ public class SettingsScreen extends Screen {
         }
     }
 
+    /**
+     * Short hit rate and load time summary; /istaggerstats has the full numbers
+     */
+    private static String formatMetrics(CacheMetrics metrics) {
+        if (metrics.getHitCount() + metrics.getMissCount() == 0) {
+            return "No lookups yet";
+        }
+        return String.format("%.0f%% hits, %dms", metrics.getHitRate() * 100, metrics.getAverageLoadMs());
+    }
+
     private void clearCache() {
         if (apiService != null) {
             apiService.clearCaches();
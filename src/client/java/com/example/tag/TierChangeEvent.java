@@ -0,0 +1,50 @@
+package com.example.tag;
+
+/**
+ * A change to one player's placement between two versions of a tier list
+ */
+public class TierChangeEvent {
+    public enum Type {
+        ADDED,
+        REMOVED,
+        TIER_UP,
+        TIER_DOWN
+    }
+
+    private final Type type;
+    private final TierListEntry previous;
+    private final TierListEntry current;
+
+    /**
+     * @param previous Entry in the old list, null for ADDED
+     * @param current Entry in the new list, null for REMOVED
+     */
+    public TierChangeEvent(Type type, TierListEntry previous, TierListEntry current) {
+        this.type = type;
+        this.previous = previous;
+        this.current = current;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public TierListEntry getPrevious() {
+        return previous;
+    }
+
+    public TierListEntry getCurrent() {
+        return current;
+    }
+
+    public String getUuid() {
+        return current != null ? current.getUuid() : previous.getUuid();
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + getUuid()
+                + (previous != null ? " from " + previous.getTier() : "")
+                + (current != null ? " to " + current.getTier() : "");
+    }
+}
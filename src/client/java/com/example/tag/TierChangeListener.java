@@ -0,0 +1,16 @@
+package com.example.tag;
+
+import java.util.List;
+
+/**
+ * Notified when a refreshed tier list differs from the cached one
+ * Called on a network thread; UI listeners must hop to the client thread themselves
+ */
+@FunctionalInterface
+public interface TierChangeListener {
+    /**
+     * @param filter Game mode of the tier list
+     * @param changes Non-empty list of per-player changes
+     */
+    void onTierChanges(String filter, List<TierChangeEvent> changes);
+}
@@ -0,0 +1,45 @@
+package com.example.tag;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.List;
+
+/**
+ * Where tier data comes from
+ * Builds the requests for the Israel Tiers and Mojang endpoints, so the service can run against a local fake
+ */
+public interface TierDataBackend {
+    /**
+     * Request for a player's tier profile
+     */
+    HttpRequest.Builder playerDataRequest(String uuid);
+
+    /**
+     * Request for the tier list of a game mode
+     */
+    HttpRequest.Builder tierListRequest(String filter);
+
+    /**
+     * Request for the Mojang profile (current username) of a UUID
+     */
+    HttpRequest.Builder usernameRequest(String uuid);
+
+    /**
+     * Request resolving a batch of usernames to UUIDs
+     * @param namesJson JSON array of usernames
+     */
+    HttpRequest.Builder bulkUuidRequest(String namesJson);
+
+    /**
+     * Hosts worth connecting to before the first lookup
+     */
+    List<URI> getWarmUpTargets();
+
+    /**
+     * Whether requests need rate limiting and a circuit breaker per host
+     * A local fake turns them off, so offline runs measure the client rather than the guards
+     */
+    default boolean isGuarded() {
+        return true;
+    }
+}
@@ -9,6 +9,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Manages display of tier information including emojis and formatting
@@ -21,8 +22,9 @@ public class TierDisplayManager {
     // Special UUID for LT69 player
     private static final String SPECIAL_UUID = "ca10edbe-9313-4fb1-95ee-534c2fed5f02";
 
-    // Cache mapping player UUIDs to their emoji representation
-    private static final Map<String, Text> playerEmojiCache = new HashMap<>();
+    // Cache mapping player UUIDs to their emoji representation; an empty text means no tier data was found
+    // Entries are dropped from network threads whenever a player's data is cached, so the map must be concurrent
+    private static final Map<String, Text> playerEmojiCache = new ConcurrentHashMap<>();
 
     // Define emoji symbols for each game mode
     private static final Map<String, String> GAME_MODE_EMOJIS = new HashMap<>();
@@ -38,12 +40,15 @@ public class TierDisplayManager {
         LOGGER.info("Initializing TierDisplayManager");
         TierDisplayManager.historyTracker = historyTracker;
         this.apiService = apiService;
+
+        // Newly cached tiers replace whatever the nametag showed before, including "no tier"
+        apiService.addPlayerDataListener(TierDisplayManager::invalidatePlayer);
     }
 
     /**
      * Get the appropriate emoji text for a player
      */
-    public static Text getPlayerTierEmoji(String uuid, String username) {
+    public Text getPlayerTierEmoji(String uuid, String username) {
         // Check if this is the special UUID for LT69
         if (SPECIAL_UUID.equalsIgnoreCase(uuid)) {
             // Generate special emoji for LT69 player
@@ -63,14 +68,9 @@ public class TierDisplayManager {
         }
 
         // Check cache first
-        if (playerEmojiCache.containsKey(uuid)) {
-            return playerEmojiCache.get(uuid);
-        }
-
-        PlayerHistoryTracker.PlayerHistory history = historyTracker.getPlayerHistory(uuid);
-        if (history == null) {
-            // No history available yet
-            return Text.literal("");
+        Text cachedEmoji = playerEmojiCache.get(uuid);
+        if (cachedEmoji != null) {
+            return cachedEmoji;
         }
 
         // Find player's best tier
@@ -78,22 +78,44 @@ public class TierDisplayManager {
         String bestTier = null;
         int highestPoints = -1;
 
-        for (String gameMode : GAME_MODE_EMOJIS.keySet()) {
-            var snapshots = history.getTierSnapshots(gameMode);
-            if (!snapshots.isEmpty()) {
-                var latestSnapshot = snapshots.get(snapshots.size() - 1);
-                int points = latestSnapshot.getPoints();
-                if (points > highestPoints) {
-                    highestPoints = points;
-                    bestTier = latestSnapshot.getTier();
-                    bestGameMode = gameMode;
+        PlayerHistoryTracker.PlayerHistory history = historyTracker.getPlayerHistory(uuid);
+        if (history != null) {
+            for (String gameMode : GAME_MODE_EMOJIS.keySet()) {
+                var snapshots = history.getTierSnapshots(gameMode);
+                if (!snapshots.isEmpty()) {
+                    var latestSnapshot = snapshots.get(snapshots.size() - 1);
+                    int points = latestSnapshot.getPoints();
+                    if (points > highestPoints) {
+                        highestPoints = points;
+                        bestTier = latestSnapshot.getTier();
+                        bestGameMode = gameMode;
+                    }
+                }
+            }
+        } else {
+            // Players nobody looked up may have been prefetched when they joined; this only reads memory
+            PlayerTierProfile profile = apiService.getCachedPlayerData(uuid);
+            if (profile == null) {
+                // No data available yet; remember that until data for this player is cached
+                return cacheNoTier(uuid);
+            }
+
+            for (String gameMode : GAME_MODE_EMOJIS.keySet()) {
+                String tier = profile.getTier(gameMode);
+                if (tier != null) {
+                    int points = apiService.getPointsForTier(tier);
+                    if (points > highestPoints) {
+                        highestPoints = points;
+                        bestTier = tier;
+                        bestGameMode = gameMode;
+                    }
                 }
             }
         }
 
         if (bestTier == null || bestGameMode == null) {
             // No tier data found
-            return Text.literal("");
+            return cacheNoTier(uuid);
         }
 
         // Get emoji for the game mode
@@ -108,6 +130,20 @@ public class TierDisplayManager {
         return tierEmoji;
     }
 
+    private static Text cacheNoTier(String uuid) {
+        Text empty = Text.literal("");
+        playerEmojiCache.put(uuid, empty);
+        return empty;
+    }
+
+    /**
+     * Forget a player's cached emoji, e.g. once new tier data for them has arrived
+     */
+    public static void invalidatePlayer(String uuid) {
+        // Nametags are keyed by the entity's UUID, which is lowercase; tier lists may use another case
+        playerEmojiCache.remove(uuid.toLowerCase());
+    }
+
     /**
      * Generate special emoji for LT69 player
      */
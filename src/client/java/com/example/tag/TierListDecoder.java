@@ -0,0 +1,156 @@
+package com.example.tag;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streaming decoder for the tier list endpoint
+ * Reads the response token by token and keeps only the fields of the requested game mode,
+ * so the raw document is never held in memory as a string or a JSON tree
+ */
+public final class TierListDecoder {
+    private TierListDecoder() {
+    }
+
+    /**
+     * Open the response body, decompressing it if the server sent it gzipped
+     */
+    public static InputStream openBody(HttpResponse<InputStream> response) throws IOException {
+        InputStream body = new BufferedInputStream(response.body());
+        String encoding = response.headers().firstValue("Content-Encoding").orElse("");
+        if (encoding.equalsIgnoreCase("gzip")) {
+            return new GZIPInputStream(body);
+        }
+        return body;
+    }
+
+    /**
+     * Decode a tier list response
+     * @param in Decompressed response body, closed when decoding finishes
+     * @param filter Game mode whose tier should be kept
+     * @return Players ranked in this game mode, in response order
+     */
+    public static List<TierListEntry> decode(InputStream in, String filter) throws IOException {
+        List<TierListEntry> entries = new ArrayList<>();
+
+        try (JsonReader reader = new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                TierListEntry entry = readPlayer(reader, filter);
+                if (entry != null) {
+                    entries.add(entry);
+                }
+            }
+            reader.endArray();
+        }
+
+        return entries;
+    }
+
+    /**
+     * Read one player object
+     * @return The entry, or null if the player has no tier in this game mode
+     */
+    private static TierListEntry readPlayer(JsonReader reader, String filter) throws IOException {
+        String uuid = null;
+        String username = null;
+        String[] stat = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (name.equals("minecraftUUID")) {
+                uuid = nextStringOrNull(reader);
+            } else if (name.equals("username")) {
+                username = nextStringOrNull(reader);
+            } else if (name.equals(filter) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                stat = readFirstStat(reader);
+            } else {
+                // Other game modes and profile fields are skipped without being materialized
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (uuid == null || stat == null || stat[0] == null) {
+            return null;
+        }
+        return new TierListEntry(uuid, username, stat[0], stat[1]);
+    }
+
+    /**
+     * Read the first entry of a game mode's stats array
+     * @return {tier, lastupdate}, or null if the array is empty
+     */
+    private static String[] readFirstStat(JsonReader reader) throws IOException {
+        String[] stat = null;
+
+        reader.beginArray();
+        if (reader.hasNext() && reader.peek() == JsonToken.BEGIN_OBJECT) {
+            stat = new String[2];
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (name.equals("tier")) {
+                    stat[0] = nextStringOrNull(reader);
+                } else if (name.equals("lastupdate")) {
+                    stat[1] = nextStringOrNull(reader);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        // Only the current placement is shown, older entries are skipped
+        while (reader.hasNext()) {
+            reader.skipValue();
+        }
+        reader.endArray();
+
+        return stat;
+    }
+
+    private static String nextStringOrNull(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        // Also accepts numbers, which the API uses for some timestamps
+        return reader.nextString();
+    }
+
+    /**
+     * Read the start of an error response for logging, then close it
+     */
+    public static String preview(HttpResponse<InputStream> response, int maxChars) {
+        try (Reader reader = new InputStreamReader(openBody(response), StandardCharsets.UTF_8)) {
+            char[] buffer = new char[maxChars];
+            int read = reader.read(buffer);
+            return read > 0 ? new String(buffer, 0, read) : "";
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    /**
+     * Close a response body that has nothing worth reading, e.g. a 304
+     */
+    public static void discard(HttpResponse<InputStream> response) {
+        try {
+            response.body().close();
+        } catch (IOException ignored) {
+            // Nothing to clean up beyond the connection, which the client handles
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.tag;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Computes the per-player changes between two versions of a tier list
+ */
+public final class TierListDiff {
+    private TierListDiff() {
+    }
+
+    /**
+     * Match players by UUID and report who was added, removed or moved tier
+     * Players whose tier is unchanged produce no event, even if other fields changed
+     * @param previous The list being replaced
+     * @param current The new list
+     * @param pointsForTier Used to decide whether a tier change is up or down
+     * @return Changes in the order of the new list, followed by removals
+     */
+    public static List<TierChangeEvent> compute(List<TierListEntry> previous, List<TierListEntry> current,
+                                                ToIntFunction<String> pointsForTier) {
+        Map<String, TierListEntry> remaining = new HashMap<>(previous.size() * 2);
+        for (TierListEntry entry : previous) {
+            remaining.put(entry.getUuid().toLowerCase(), entry);
+        }
+
+        List<TierChangeEvent> changes = new ArrayList<>();
+        for (TierListEntry entry : current) {
+            TierListEntry old = remaining.remove(entry.getUuid().toLowerCase());
+            if (old == null) {
+                changes.add(new TierChangeEvent(TierChangeEvent.Type.ADDED, null, entry));
+            } else if (!old.getTier().equals(entry.getTier())) {
+                boolean up = pointsForTier.applyAsInt(entry.getTier()) > pointsForTier.applyAsInt(old.getTier());
+                changes.add(new TierChangeEvent(up ? TierChangeEvent.Type.TIER_UP : TierChangeEvent.Type.TIER_DOWN, old, entry));
+            }
+        }
+
+        // Whatever was not matched has left the list
+        for (TierListEntry entry : previous) {
+            if (remaining.containsKey(entry.getUuid().toLowerCase())) {
+                changes.add(new TierChangeEvent(TierChangeEvent.Type.REMOVED, entry, null));
+            }
+        }
+
+        return changes;
+    }
+}
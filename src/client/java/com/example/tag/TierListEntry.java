@@ -0,0 +1,41 @@
+package com.example.tag;
+
+/**
+ * A single player's placement in a tier list
+ * Only holds the fields the mod actually displays, so large lists stay small in memory
+ */
+public class TierListEntry {
+    private final String uuid;
+    private final String username;
+    private final String tier;
+    private final String lastUpdate;
+
+    public TierListEntry(String uuid, String username, String tier, String lastUpdate) {
+        this.uuid = uuid;
+        this.username = username;
+        this.tier = tier;
+        this.lastUpdate = lastUpdate;
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    /**
+     * @return Username as sent by the tier list API, may be null
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    public String getTier() {
+        return tier;
+    }
+
+    /**
+     * @return Unix timestamp in seconds, as a string
+     */
+    public String getLastUpdate() {
+        return lastUpdate;
+    }
+}
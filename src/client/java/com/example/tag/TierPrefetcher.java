@@ -0,0 +1,142 @@
+package com.example.tag;
+
+import org.slf4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fetches tier data in the background for players joining the server, so nametags are ready when they come into view
+ * Runs at low priority: few requests at a time, a per-minute budget, and each player is requested at most once
+ */
+public class TierPrefetcher {
+    private static final int PREFETCHES_PER_MINUTE = 30;
+    private static final int MAX_CONCURRENT_PREFETCHES = 2;
+
+    private final IsrealTiersApiService apiService;
+    private final Logger logger;
+    private final RateLimiter budget = new RateLimiter(PREFETCHES_PER_MINUTE, PREFETCHES_PER_MINUTE / 60.0);
+
+    // Players already queued or fetched; cleared when leaving the server
+    private final Set<String> requested = ConcurrentHashMap.newKeySet();
+
+    // Guarded by itself, like activePrefetches and pumpScheduled
+    private final Deque<String> queue = new ArrayDeque<>();
+    private int activePrefetches = 0;
+    private boolean pumpScheduled = false;
+
+    public TierPrefetcher(IsrealTiersApiService apiService, Logger logger) {
+        this.apiService = apiService;
+        this.logger = logger;
+    }
+
+    /**
+     * Queue newly joined players whose tiers aren't cached yet
+     * @param joined UUID -> username
+     */
+    public void onPlayersJoined(Map<String, String> joined) {
+        synchronized (queue) {
+            for (String uuid : joined.keySet()) {
+                if (requested.add(uuid) && !apiService.hasCachedPlayerData(uuid)) {
+                    queue.add(uuid);
+                }
+            }
+        }
+        pump();
+    }
+
+    /**
+     * Fetch again the players on this server whose tiers changed, since their cached profiles were dropped
+     */
+    public void onTierChanges(String filter, List<TierChangeEvent> changes) {
+        synchronized (queue) {
+            for (TierChangeEvent change : changes) {
+                // Server UUIDs are lowercase; tier list UUIDs may not be
+                String uuid = change.getUuid().toLowerCase();
+                if (requested.contains(uuid) && !queue.contains(uuid)) {
+                    queue.add(uuid);
+                }
+            }
+        }
+        pump();
+    }
+
+    /**
+     * Drop everything queued, e.g. after leaving a server
+     */
+    public void clear() {
+        synchronized (queue) {
+            queue.clear();
+            requested.clear();
+        }
+    }
+
+    /**
+     * Start as many queued prefetches as concurrency and budget allow
+     */
+    private void pump() {
+        List<String> toStart = new ArrayList<>();
+        long retryInMs = 0;
+
+        synchronized (queue) {
+            while (activePrefetches < MAX_CONCURRENT_PREFETCHES && !queue.isEmpty()) {
+                long waitMs = budget.reserve(0);
+                if (waitMs != 0) {
+                    // Out of budget; try again once a token has refilled
+                    retryInMs = TimeUnit.MINUTES.toMillis(1) / PREFETCHES_PER_MINUTE;
+                    break;
+                }
+                toStart.add(queue.poll());
+                activePrefetches++;
+            }
+
+            if (retryInMs > 0 && !pumpScheduled) {
+                pumpScheduled = true;
+            } else {
+                retryInMs = 0;
+            }
+        }
+
+        if (retryInMs > 0) {
+            ModExecutors.delayed(retryInMs, TimeUnit.MILLISECONDS).execute(() -> {
+                synchronized (queue) {
+                    pumpScheduled = false;
+                }
+                pump();
+            });
+        }
+
+        for (String uuid : toStart) {
+            prefetch(uuid);
+        }
+    }
+
+    private void prefetch(String uuid) {
+        logger.debug("Prefetching tier data for {}", uuid);
+        apiService.fetchPlayerDataAsync(uuid, RequestPriority.BACKGROUND).whenComplete((data, error) -> {
+            if (error != null) {
+                logger.debug("Prefetch for {} failed: {}", uuid, error.toString());
+            }
+
+            synchronized (queue) {
+                activePrefetches--;
+            }
+            pump();
+        });
+    }
+
+    /**
+     * Get the number of players waiting to be prefetched
+     */
+    public int getQueuedCount() {
+        synchronized (queue) {
+            return queue.size();
+        }
+    }
+}
@@ -2,9 +2,6 @@ package com.example.tag;
 
 import com.example.tag.fix.DirectTextRenderer;
 import com.example.tag.fix.SharpTabButton;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
-import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.DrawContext;
 import net.minecraft.client.gui.Drawable;
 import net.minecraft.client.gui.Element;
@@ -12,6 +9,7 @@ import net.minecraft.client.gui.screen.Screen;
 import net.minecraft.client.gui.widget.ButtonWidget;
 import net.minecraft.client.gui.widget.TextFieldWidget;
 import net.minecraft.text.Text;
+import org.lwjgl.glfw.GLFW;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,6 +27,9 @@ public class TierScreen extends Screen {
     private static final int WINDOW_WIDTH = 320;
     private static final int WINDOW_HEIGHT = 240;
 
+    // Wait this long after the last keystroke before fetching the top match's tiers
+    private static final long SEARCH_DEBOUNCE_MS = 250;
+
     // Services
     private final IsrealTiersApiService apiService;
 
@@ -44,11 +45,20 @@ public class TierScreen extends Screen {
     private ButtonWidget customizeThemeButton;
 
     // State
-    private JsonObject playerData;
+    private PlayerTierProfile playerData;
     private String currentUsername;
     private String currentUuid;
     private boolean isLoading = false;
 
+    // Lookups of the current search; replaced by each new search and cancelled when the screen closes
+    private RequestScope searchScope = new RequestScope();
+
+    // Type-ahead: the best local match for the text typed so far, and whether its tiers wait for the debounce to be fetched
+    private final PlayerSearchIndex searchIndex;
+    private PlayerSearchIndex.Candidate topMatch;
+    private boolean previewPending;
+    private long queryChangedAt;
+
     private LeaderboardWidget leaderboardWidget;
 
     // Tab positions
@@ -57,7 +67,11 @@ public class TierScreen extends Screen {
 
     public TierScreen() {
         super(Text.literal("Israel Tier Tagger"));
-        this.apiService = new IsrealTiersApiService(LOGGER);
+        this.apiService = IstiertaggerClient.getInstance().getApiService();
+        this.searchIndex = new PlayerSearchIndex(this.apiService,
+                IstiertaggerClient.getInstance().getOnlinePlayerTracker(), historyTracker, GAME_MODES);
+        // Built in the background, so it is usually ready by the first keystroke
+        this.searchIndex.refresh();
     }
 
     @Override
@@ -72,6 +86,10 @@ public class TierScreen extends Screen {
 
         int leaderboardX = windowX + WINDOW_WIDTH + 10;
         int leaderboardY = windowY;
+        if (this.leaderboardWidget != null) {
+            // init() runs again on resize; the old widget must stop listening for changes
+            this.leaderboardWidget.dispose();
+        }
         this.leaderboardWidget = new LeaderboardWidget(leaderboardX, leaderboardY, this.selectedTab, this.apiService);
 
         ModConfig config = ModConfig.getInstance();
@@ -97,6 +115,7 @@ public class TierScreen extends Screen {
                 Text.literal("Enter username")
         );
         this.searchField.setMaxLength(16);
+        this.searchField.setChangedListener(this::onSearchTextChanged);
         this.addDrawableChild(this.searchField);
 
         // Search button
@@ -144,7 +163,7 @@ public class TierScreen extends Screen {
                     Text.literal("View History"),
                     button -> {
                         if (this.currentUsername != null && this.playerData != null) {
-                            String uuid = this.playerData.get("id").getAsString();
+                            String uuid = this.playerData.getUuid();
                             assert this.client != null;
                             this.client.setScreen(new PlayerHistoryScreen(this, uuid, this.currentUsername, historyTracker));
                         }
@@ -165,7 +184,116 @@ public class TierScreen extends Screen {
         }
     }
 
+    /**
+     * Show the best local match right away; if its tiers aren't cached, fetch them once typing pauses
+     */
+    private void onSearchTextChanged(String text) {
+        this.topMatch = this.searchIndex.findBest(text);
+
+        // Complete the typed text in grey with the rest of the match
+        String suggestion = null;
+        if (this.topMatch != null && this.topMatch.getUsername().length() > text.length()) {
+            suggestion = this.topMatch.getUsername().substring(text.length());
+        }
+        this.searchField.setSuggestion(suggestion);
+
+        // Whatever the previous query was still waiting for has been superseded
+        if (this.isLoading) {
+            this.searchScope = this.searchScope.renew();
+            this.isLoading = false;
+        }
+
+        this.previewPending = this.topMatch != null && !previewMatch(this.topMatch);
+        this.queryChangedAt = System.currentTimeMillis();
+    }
+
+    @Override
+    public void tick() {
+        super.tick();
+
+        if (!this.previewPending || System.currentTimeMillis() - this.queryChangedAt < SEARCH_DEBOUNCE_MS) {
+            return;
+        }
+        this.previewPending = false;
+        fetchPreview(this.topMatch);
+    }
+
+    @Override
+    public boolean keyPressed(int keyCode, int scanCode, int modifiers) {
+        if ((keyCode == GLFW.GLFW_KEY_ENTER || keyCode == GLFW.GLFW_KEY_KP_ENTER) && this.searchField.isFocused()) {
+            searchPlayer(this.searchField.getText());
+            return true;
+        }
+        return super.keyPressed(keyCode, scanCode, modifiers);
+    }
+
+    /**
+     * Show a local match's cached tiers, or clear the last preview if there are none
+     * @return Whether cached tiers were shown
+     */
+    private boolean previewMatch(PlayerSearchIndex.Candidate match) {
+        PlayerTierProfile cached = apiService.getCachedPlayerData(match.getUuid());
+        if (cached == null) {
+            // Don't leave the previous match's tiers under a different name
+            this.currentUsername = null;
+            this.currentUuid = null;
+            this.playerData = null;
+            return false;
+        }
+
+        this.currentUsername = match.getUsername();
+        this.currentUuid = match.getUuid();
+        this.playerData = cached;
+        if (this.viewHistoryButton != null) {
+            this.viewHistoryButton.active = true;
+        }
+        return true;
+    }
+
+    /**
+     * Fetch a local match's tiers once typing has paused
+     * Its UUID is known, so only the profile is requested; history is only recorded for explicit searches
+     */
+    private void fetchPreview(PlayerSearchIndex.Candidate match) {
+        this.isLoading = true;
+        this.currentUsername = match.getUsername();
+
+        this.searchScope = this.searchScope.renew();
+        RequestScope scope = this.searchScope;
+
+        scope.track(apiService.fetchPlayerDataAsync(match.getUuid(), RequestPriority.VISIBLE))
+                .whenComplete((data, error) -> {
+                    if (error != null && scope.isCancelled()) {
+                        return;
+                    }
+                    if (error != null) {
+                        LOGGER.error("Error previewing player", error);
+                    }
+                    scope.runOnClient(() -> {
+                        this.currentUuid = data != null ? match.getUuid() : null;
+                        this.playerData = data;
+                        this.isLoading = false;
+                        if (this.viewHistoryButton != null && data != null) {
+                            this.viewHistoryButton.active = true;
+                        }
+                    });
+                });
+    }
+
     private void searchPlayer(String username) {
+        // An explicit search replaces the debounced preview
+        this.previewPending = false;
+
+        // A fully typed local match is known already, so the UUID lookup can be skipped
+        PlayerSearchIndex.Candidate match = this.topMatch;
+        String knownUuid = match != null && match.getUsername().equalsIgnoreCase(username) ? match.getUuid() : null;
+        searchPlayer(username, knownUuid);
+    }
+
+    /**
+     * @param knownUuid The player's UUID if already known, otherwise it is looked up first
+     */
+    private void searchPlayer(String username, String knownUuid) {
         if (username == null || username.isEmpty()) {
             return;
         }
@@ -173,48 +301,58 @@ public class TierScreen extends Screen {
         this.isLoading = true;
         this.currentUsername = username;
 
-        // Run asynchronously to avoid freezing the game
-        CompletableFuture.runAsync(() -> {
-            try {
-                String uuid = apiService.fetchUUID(username);
-                if (uuid == null) {
-                    this.isLoading = false;
-                    MinecraftClient.getInstance().execute(() -> {
-                        this.playerData = null;
-                        this.currentUuid = null;
-                    });
-                    return;
-                }
+        // A new search replaces whatever the last one was still waiting for
+        this.searchScope = this.searchScope.renew();
+        RequestScope scope = this.searchScope;
 
-                this.currentUuid = uuid;
+        CompletableFuture<String> uuidLookup = knownUuid != null
+                ? CompletableFuture.completedFuture(knownUuid)
+                : scope.track(apiService.fetchUUIDAsync(username));
 
-                apiService.fetchPlayerData(uuid, (data, success) -> {
+        // Run asynchronously to avoid freezing the game
+        uuidLookup
+                .thenCompose(uuid -> {
+                    if (uuid == null) {
+                        scope.runOnClient(() -> {
+                            this.isLoading = false;
+                            this.playerData = null;
+                            this.currentUuid = null;
+                        });
+                        return CompletableFuture.completedFuture(null);
+                    }
+
+                    return scope.track(apiService.fetchPlayerDataAsync(uuid)).thenAccept(data -> {
+                        // Execute on main thread to avoid threading issues
+                        scope.runOnClient(() -> {
+                            this.currentUuid = uuid;
+                            this.playerData = data;
+                            this.isLoading = false;
+
+                            // Record player data for history if tracking is enabled
+                            if (data != null && ModConfig.getInstance().isTrackPlayerHistory() && historyTracker != null) {
+                                historyTracker.recordPlayerData(uuid, username, data);
+                            }
+
+                            // Enable history button if we have data
+                            if (this.viewHistoryButton != null) {
+                                this.viewHistoryButton.active = true;
+                            }
+                        });
+                    });
+                })
+                .exceptionally(e -> {
+                    if (scope.isCancelled()) {
+                        return null;
+                    }
+                    LOGGER.error("Error searching for player", e);
                     // Execute on main thread to avoid threading issues
-                    MinecraftClient.getInstance().execute(() -> {
-                        this.playerData = data;
+                    scope.runOnClient(() -> {
                         this.isLoading = false;
-
-                        // Record player data for history if tracking is enabled
-                        if (data != null && ModConfig.getInstance().isTrackPlayerHistory() && historyTracker != null) {
-                            historyTracker.recordPlayerData(uuid, username, data);
-                        }
-
-                        // Enable history button if we have data
-                        if (this.viewHistoryButton != null) {
-                            this.viewHistoryButton.active = true;
-                        }
+                        this.playerData = null;
+                        this.currentUuid = null;
                     });
+                    return null;
                 });
-            } catch (Exception e) {
-                LOGGER.error("Error searching for player", e);
-                // Execute on main thread to avoid threading issues
-                MinecraftClient.getInstance().execute(() -> {
-                    this.isLoading = false;
-                    this.playerData = null;
-                    this.currentUuid = null;
-                });
-            }
-        });
     }
 
     @Override
@@ -251,6 +389,22 @@ public class TierScreen extends Screen {
                 titleColor
         );
 
+        // Live top match between the search field and the tabs
+        if (this.topMatch != null) {
+            String source = switch (this.topMatch.getSource()) {
+                case ONLINE -> "online";
+                case HISTORY -> "history";
+                case TIER_LIST -> "tier list";
+            };
+            DirectTextRenderer.drawText(
+                    context,
+                    "Top match: " + this.topMatch.getUsername() + " (" + source + ")",
+                    windowX + 22,
+                    windowY + 41,
+                    textSecondaryColor
+            );
+        }
+
         // Draw loading text with DIRECT crisp text rendering
         if (this.isLoading) {
             DirectTextRenderer.drawCenteredText(
@@ -316,105 +470,96 @@ public class TierScreen extends Screen {
 
     private void renderPlayerData(DrawContext context, int windowX, int windowY) {
         try {
-            JsonObject userData = this.playerData.get("userData").getAsJsonObject();
-            JsonArray stats = userData.getAsJsonArray("stats");
-
-            ModConfig config;
-            config = null;
-            if (stats != null && !stats.isEmpty()) {
-                JsonObject gameStats = stats.get(0).getAsJsonObject();
-
-                // Get theme colors
-                config = ModConfig.getInstance();
-                int textPrimaryColor = config.getColor("text_primary", 0xFFFFFF);
-                int textSecondaryColor = config.getColor("text_secondary", 0xAAAAAA);
-                int tierTextColor = config.getColor("tier_text", 0x4080FF);
-                int pointsTextColor = config.getColor("points_text", 0xFFAA00);
-                int errorTextColor = config.getColor("text_error", 0xFF5555);
-
-                // Calculate precise positions
-                int startX = windowX + 20;
-                int startY = windowY + 80;
-
-                // Render player name with DIRECT crisp text
+            // Get theme colors
+            ModConfig config = ModConfig.getInstance();
+            int textPrimaryColor = config.getColor("text_primary", 0xFFFFFF);
+            int textSecondaryColor = config.getColor("text_secondary", 0xAAAAAA);
+            int tierTextColor = config.getColor("tier_text", 0x4080FF);
+            int pointsTextColor = config.getColor("points_text", 0xFFAA00);
+            int errorTextColor = config.getColor("text_error", 0xFF5555);
+
+            // Calculate precise positions
+            int startX = windowX + 20;
+            int startY = windowY + 80;
+
+            if (!this.playerData.hasAnyTier()) {
+                // No tier data at all
                 DirectTextRenderer.drawText(
                         context,
-                        "Player: " + this.currentUsername,
-                        startX,
-                        startY,
-                        textPrimaryColor
+                        "No tier data available",
+                        windowX + 20,
+                        windowY + 100,
+                        errorTextColor
                 );
+                return;
+            }
 
-                // Get selected game mode stats
-                JsonArray modeStats = gameStats.has(this.selectedTab) ?
-                        gameStats.getAsJsonArray(this.selectedTab) : null;
+            // Render player name with DIRECT crisp text
+            DirectTextRenderer.drawText(
+                    context,
+                    "Player: " + this.currentUsername,
+                    startX,
+                    startY,
+                    textPrimaryColor
+            );
 
-                if (modeStats != null && !modeStats.isEmpty()) {
-                    JsonObject stat = modeStats.get(0).getAsJsonObject();
-                    String tier = stat.has("tier") ? stat.get("tier").getAsString() : "Unknown";
-                    String lastUpdate = stat.has("lastupdate") ? stat.get("lastupdate").getAsString() : "0";
+            // Get selected game mode stats
+            if (this.playerData.hasStats(this.selectedTab)) {
+                String tier = this.playerData.getTier(this.selectedTab) != null
+                        ? this.playerData.getTier(this.selectedTab) : "Unknown";
+                long lastUpdate = this.playerData.getLastUpdate(this.selectedTab);
 
-                    int points = apiService.getPointsForTier(tier);
-                    String formattedTime = apiService.formatUnixTimestamp(lastUpdate);
+                int points = apiService.getPointsForTier(tier);
+                String formattedTime = apiService.formatUnixTimestamp(lastUpdate);
 
-                    // Render tier with DIRECT crisp text
-                    DirectTextRenderer.drawText(
-                            context,
-                            "Tier: " + tier,
-                            startX,
-                            startY + 20,
-                            tierTextColor
-                    );
+                // Render tier with DIRECT crisp text
+                DirectTextRenderer.drawText(
+                        context,
+                        "Tier: " + tier,
+                        startX,
+                        startY + 20,
+                        tierTextColor
+                );
 
-                    // Render points with DIRECT crisp text
-                    DirectTextRenderer.drawText(
-                            context,
-                            "Points: " + points,
-                            startX,
-                            startY + 40,
-                            pointsTextColor
-                    );
+                // Render points with DIRECT crisp text
+                DirectTextRenderer.drawText(
+                        context,
+                        "Points: " + points,
+                        startX,
+                        startY + 40,
+                        pointsTextColor
+                );
 
-                    // Render last updated with DIRECT crisp text
-                    DirectTextRenderer.drawText(
-                            context,
-                            "Last updated: " + formattedTime,
-                            startX,
-                            startY + 60,
-                            textSecondaryColor
-                    );
+                // Render last updated with DIRECT crisp text
+                DirectTextRenderer.drawText(
+                        context,
+                        "Last updated: " + formattedTime,
+                        startX,
+                        startY + 60,
+                        textSecondaryColor
+                );
 
-                    // Render rank if leaderboard is available
-                    if (this.leaderboardWidget != null) {
-                        int rank = this.leaderboardWidget.getPlayerRank(this.currentUsername);
-                        if (rank > 0) {
-                            DirectTextRenderer.drawText(
-                                    context,
-                                    "Rank: #" + rank + " in " + this.selectedTab,
-                                    startX,
-                                    startY + 80,
-                                    pointsTextColor
-                            );
-                        }
+                // Render rank if leaderboard is available
+                if (this.leaderboardWidget != null) {
+                    int rank = this.leaderboardWidget.getPlayerRank(this.currentUsername);
+                    if (rank > 0) {
+                        DirectTextRenderer.drawText(
+                                context,
+                                "Rank: #" + rank + " in " + this.selectedTab,
+                                startX,
+                                startY + 80,
+                                pointsTextColor
+                        );
                     }
-                } else {
-                    // No data for this game mode
-                    DirectTextRenderer.drawText(
-                            context,
-                            "No data for " + TAB_LABELS[getTabIndex(this.selectedTab)],
-                            startX,
-                            startY + 20,
-                            errorTextColor
-                    );
                 }
             } else {
-                // No tier data at all
+                // No data for this game mode
                 DirectTextRenderer.drawText(
                         context,
-                        "No tier data available",
-                        windowX + 20,
-                        windowY + 100,
-                        config.getColor("text_error", 0xFF5555)
+                        "No data for " + TAB_LABELS[getTabIndex(this.selectedTab)],
+                        startX,
+                        startY + 20,
+                        errorTextColor
                 );
             }
         } catch (Exception e) {
@@ -448,6 +593,15 @@ public class TierScreen extends Screen {
         historyTracker = tracker;
     }
 
+    @Override
+    public void removed() {
+        super.removed();
+        this.searchScope.cancel();
+        if (this.leaderboardWidget != null) {
+            this.leaderboardWidget.dispose();
+        }
+    }
+
     @Override
     public boolean mouseClicked(double mouseX, double mouseY, int button) {
         // Check if the leaderboard was clicked first
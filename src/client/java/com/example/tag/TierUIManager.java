@@ -1,7 +1,5 @@
 package com.example.tag;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
 import net.dv8tion.jda.api.JDA;
 import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
 import net.minecraft.text.ClickEvent;
@@ -9,10 +7,9 @@ import net.minecraft.text.HoverEvent;
 import net.minecraft.text.Text;
 import org.slf4j.Logger;
 
-import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -20,10 +17,12 @@ import java.util.concurrent.CompletableFuture;
  */
 public class TierUIManager {
     private final Logger logger;
+    private final IsrealTiersApiService apiService;
     private JDA jda;
 
-    public TierUIManager(Logger logger) {
+    public TierUIManager(Logger logger, IsrealTiersApiService apiService) {
         this.logger = logger;
+        this.apiService = apiService;
     }
 
     public void setJda(JDA jda) {
@@ -154,17 +153,15 @@ public class TierUIManager {
     /**
      * Display player data in chat
      */
-    public void displayPlayerData(FabricClientCommandSource source, String username, JsonObject data, String filter) {
+    public void displayPlayerData(FabricClientCommandSource source, String username, PlayerTierProfile data, String filter) {
         try {
             // Main header
             source.sendFeedback(Text.literal("§6=== Player Data for " + username + " ==="));
 
-            // Parse userData
-            JsonObject userData = data.get("userData").getAsJsonObject();
-            String discordId = userData.get("discordId").getAsString();
+            String discordId = data.getDiscordId();
 
             // Basic info section
-            String uuid = data.get("id").getAsString();
+            String uuid = data.getUuid();
 
             // Create all texts in a section
             Text uuidText = Text.literal("§7UUID: ")
@@ -208,7 +205,7 @@ public class TierUIManager {
                 source.sendFeedback(discordText);
 
                 // Continue with displaying game stats
-                displayGameStats(source, userData, filter, username);
+                displayGameStats(source, data, filter, username);
             });
         } catch (Exception e) {
             logger.error("Error formatting player data", e);
@@ -219,43 +216,31 @@ public class TierUIManager {
     /**
      * Display game statistics
      */
-    private void displayGameStats(FabricClientCommandSource source, JsonObject userData, String filter, String username) {
+    private void displayGameStats(FabricClientCommandSource source, PlayerTierProfile gameStats, String filter, String username) {
         try {
-            // Parse stats
-            JsonArray stats = userData.getAsJsonArray("stats");
-            if (!stats.isEmpty()) {
-                JsonObject gameStats = stats.get(0).getAsJsonObject();
-
-                if (filter == null) {
-                    source.sendFeedback(Text.literal("\n§6=== Game Stats ==="));
-
-                    // Calculate total points
-                    int totalPoints = 0;
-                    IsrealTiersApiService apiService = new IsrealTiersApiService(logger);
-
-                    for (String gameMode : new String[]{"crystal", "pot", "sword", "uhc", "smp"}) {
-                        JsonArray modeStats = gameStats.getAsJsonArray(gameMode);
-                        if (modeStats != null && !modeStats.isEmpty()) {
-                            JsonObject stat = modeStats.get(0).getAsJsonObject();
-                            String tier = stat.get("tier").getAsString();
-                            totalPoints += apiService.getPointsForTier(tier);
-                        }
-                    }
-
+            if (filter == null) {
+                source.sendFeedback(Text.literal("\n§6=== Game Stats ==="));
 
-                    source.sendFeedback(Text.literal("§6Total Points: §d" + totalPoints));
+                // Calculate total points
+                int totalPoints = 0;
 
-                    // Display all game modes
-                    displayGameMode(source, gameStats, "crystal", "Crystal", username);
-                    displayGameMode(source, gameStats, "pot", "Pot", username);
-                    displayGameMode(source, gameStats, "sword", "Sword", username);
-                    displayGameMode(source, gameStats, "uhc", "UHC", username);
-                    displayGameMode(source, gameStats, "smp", "SMP", username);
-                } else {
-                    // Display only the filtered game mode
-                    displayGameMode(source, gameStats, filter,
-                            filter.substring(0, 1).toUpperCase() + filter.substring(1), username);
+                for (String gameMode : PlayerTierProfile.GAME_MODES) {
+                    totalPoints += apiService.getPointsForTier(gameStats.getTier(gameMode));
                 }
+
+
+                source.sendFeedback(Text.literal("§6Total Points: §d" + totalPoints));
+
+                // Display all game modes
+                displayGameMode(source, gameStats, "crystal", "Crystal", username);
+                displayGameMode(source, gameStats, "pot", "Pot", username);
+                displayGameMode(source, gameStats, "sword", "Sword", username);
+                displayGameMode(source, gameStats, "uhc", "UHC", username);
+                displayGameMode(source, gameStats, "smp", "SMP", username);
+            } else {
+                // Display only the filtered game mode
+                displayGameMode(source, gameStats, filter,
+                        filter.substring(0, 1).toUpperCase() + filter.substring(1), username);
             }
         } catch (Exception e) {
             logger.error("Error displaying game stats", e);
@@ -266,18 +251,15 @@ public class TierUIManager {
     /**
      * Display game mode stats
      */
-    private void displayGameMode(FabricClientCommandSource source, JsonObject gameStats,
+    private void displayGameMode(FabricClientCommandSource source, PlayerTierProfile gameStats,
                                  String gameMode, String displayName, String username) {
         try {
-            JsonArray modeStats = gameStats.getAsJsonArray(gameMode);
-            if (modeStats != null && !modeStats.isEmpty()) {
-                JsonObject stat = modeStats.get(0).getAsJsonObject();
-                String tier = stat.get("tier").getAsString();
-                String lastUpdate = stat.get("lastupdate").getAsString();
+            if (gameStats.hasStats(gameMode)) {
+                String tier = gameStats.getTier(gameMode) != null ? gameStats.getTier(gameMode) : "";
+                long lastUpdate = gameStats.getLastUpdate(gameMode);
 
                 // Only display if there's actual data
-                if (!tier.isEmpty() || !lastUpdate.isEmpty()) {
-                    IsrealTiersApiService apiService = new IsrealTiersApiService(logger);
+                if (!tier.isEmpty() || lastUpdate != 0) {
                     String formattedTime = apiService.formatUnixTimestamp(lastUpdate);
                     int points = apiService.getPointsForTier(tier);
 
@@ -308,72 +290,91 @@ public class TierUIManager {
         }
     }
 
+    /**
+     * Display lookup and load metrics of every cache region in chat
+     */
+    public void displayCacheMetrics(FabricClientCommandSource source) {
+        source.sendFeedback(createFeedbackMessage("§6=== Cache Metrics ==="));
+        long[] bounds = CacheMetrics.getLatencyBoundsMs();
+
+        for (CacheMetrics metrics : apiService.getCacheMetrics()) {
+            source.sendFeedback(createFeedbackMessage(String.format("§e%s: §f%d entries §7(weight %d/%d)",
+                    metrics.getName(), metrics.getSize(), metrics.getWeightedSize(), metrics.getMaxWeight())));
+            source.sendFeedback(createFeedbackMessage(String.format(
+                    "  §7Lookups: §a%d hits§7, §c%d misses §7(%.1f%% hit rate), %d expired, %d swept, %d evicted",
+                    metrics.getHitCount(), metrics.getMissCount(), metrics.getHitRate() * 100,
+                    metrics.getExpirationCount(), metrics.getSweptCount(), metrics.getEvictionCount())));
+
+            if (metrics.getLoadCount() == 0) {
+                continue;
+            }
+            source.sendFeedback(createFeedbackMessage(String.format(
+                    "  §7Loads: §f%d §7(%d failed), avg §f%dms§7, p50 %s, p95 %s",
+                    metrics.getLoadCount(), metrics.getLoadFailureCount(), metrics.getAverageLoadMs(),
+                    formatLatencyBound(metrics.getLoadPercentileMs(0.5), bounds),
+                    formatLatencyBound(metrics.getLoadPercentileMs(0.95), bounds))));
+
+            // Only the buckets that have loads, to keep the line short
+            StringBuilder histogram = new StringBuilder("  §7Latency:");
+            long[] counts = metrics.getLatencyHistogram();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    long bound = i < bounds.length ? bounds[i] : Long.MAX_VALUE;
+                    histogram.append(' ').append(formatLatencyBound(bound, bounds)).append(" §f").append(counts[i]).append("§7");
+                }
+            }
+            source.sendFeedback(createFeedbackMessage(histogram.toString()));
+        }
+    }
+
+    private static String formatLatencyBound(long bound, long[] bounds) {
+        return bound == Long.MAX_VALUE ? ">" + bounds[bounds.length - 1] + "ms" : "<=" + bound + "ms";
+    }
+
     /**
      * Display tier list in chat
      */
-    public void displayTierList(FabricClientCommandSource source, String filter, JsonArray tiers,
-                                IsrealTiersApiService apiService) {
+    public void displayTierList(FabricClientCommandSource source, String filter, List<TierListEntry> tiers) {
         source.sendFeedback(Text.literal("\n§6=== " + filter.toUpperCase() + " Tier List ==="));
 
-        // Sort players by points
-        List<Map.Entry<String, Integer>> sortedPlayers = new ArrayList<>();
+        // Sort players by points (highest first)
+        List<TierListEntry> sortedPlayers = new ArrayList<>(tiers);
+        sortedPlayers.sort(Comparator.comparingInt(
+                (TierListEntry player) -> apiService.getPointsForTier(player.getTier())).reversed());
 
-        for (int i = 0; i < tiers.size(); i++) {
-            JsonObject player = tiers.get(i).getAsJsonObject();
-            String uuid = player.get("minecraftUUID").getAsString();
-            JsonArray filterStats = player.getAsJsonArray(filter);
+        // Limit to top 50 for performance, and resolve any usernames the list doesn't carry in parallel
+        List<TierListEntry> topPlayers = sortedPlayers.subList(0, Math.min(sortedPlayers.size(), 50));
 
-            if (filterStats != null && !filterStats.isEmpty()) {
-                JsonObject stat = filterStats.get(0).getAsJsonObject();
-                String tier = stat.get("tier").getAsString();
+        apiService.fetchUsernamesForTierListAsync(topPlayers).thenAccept(usernames -> {
+            // Display sorted list
+            for (int i = 0; i < topPlayers.size(); i++) {
+                TierListEntry player = topPlayers.get(i);
+                String uuid = player.getUuid();
+                String tier = player.getTier();
                 int points = apiService.getPointsForTier(tier);
-                sortedPlayers.add(new AbstractMap.SimpleEntry<>(uuid, points));
-            }
-        }
 
-        // Sort by points (highest first)
-        sortedPlayers.sort((a, b) -> b.getValue().compareTo(a.getValue()));
-
-        // Display sorted list
-        for (int i = 0; i < Math.min(sortedPlayers.size(), 50); i++) { // Limit to top 50 for performance
-            Map.Entry<String, Integer> entry = sortedPlayers.get(i);
-            String uuid = entry.getKey();
-            int points = entry.getValue();
-
-            // Find player data again
-            for (int j = 0; j < tiers.size(); j++) {
-                JsonObject player = tiers.get(j).getAsJsonObject();
-                if (player.get("minecraftUUID").getAsString().equals(uuid)) {
-                    JsonArray filterStats = player.getAsJsonArray(filter);
-                    JsonObject stat = filterStats.get(0).getAsJsonObject();
-                    String tier = stat.get("tier").getAsString();
-                    String lastUpdate = stat.get("lastupdate").getAsString();
-
-                    try {
-                        String username = apiService.fetchUsernameFromUUID(uuid);
-                        String formattedTime = apiService.formatUnixTimestamp(lastUpdate);
-                        source.sendFeedback(
-                                Text.literal(String.format("#%d §e%s: §b%s §d(%d points) §7(Last updated: §f%s§7)",
-                                                i + 1, username, tier, points, formattedTime))
-                                        .styled(style -> style.withClickEvent(
-                                                new ClickEvent(
-                                                        ClickEvent.Action.SUGGEST_COMMAND,
-                                                        "/istagger " + username
-                                                )
-                                        ))
-                                        .styled(style -> style.withHoverEvent(
-                                                new HoverEvent(
-                                                        HoverEvent.Action.SHOW_TEXT,
-                                                        Text.literal("§7Click to view player details")
-                                                )
-                                        ))
-                        );
-                    } catch (Exception e) {
-                        logger.error("Error fetching username for UUID: {}", uuid, e);
-                    }
-                    break;
-                }
+                String username = usernames.getOrDefault(uuid, uuid);
+                String formattedTime = apiService.formatUnixTimestamp(player.getLastUpdate());
+                source.sendFeedback(
+                        Text.literal(String.format("#%d §e%s: §b%s §d(%d points) §7(Last updated: §f%s§7)",
+                                        i + 1, username, tier, points, formattedTime))
+                                .styled(style -> style.withClickEvent(
+                                        new ClickEvent(
+                                                ClickEvent.Action.SUGGEST_COMMAND,
+                                                "/istagger " + username
+                                        )
+                                ))
+                                .styled(style -> style.withHoverEvent(
+                                        new HoverEvent(
+                                                HoverEvent.Action.SHOW_TEXT,
+                                                Text.literal("§7Click to view player details")
+                                        )
+                                ))
+                );
             }
-        }
+        }).exceptionally(e -> {
+            logger.error("Error displaying tier list", e);
+            return null;
+        });
     }
 }
\ No newline at end of file
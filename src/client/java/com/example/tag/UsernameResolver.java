@@ -0,0 +1,196 @@
+package com.example.tag;
+
+import org.slf4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Resolves player UUIDs to usernames for tier-list rendering
+ * Lookups are served from the player list and caches first and otherwise run in parallel with a bounded number in flight
+ */
+public class UsernameResolver {
+    // Mojang starts rate limiting well before this, so keep the burst small
+    private static final int MAX_CONCURRENT_LOOKUPS = 6;
+
+    private final Logger logger;
+    private final PlayerDataCache cache;
+    private final IdentityResolver identity;
+    private final Function<String, CompletableFuture<String>> fetcher;
+
+    // Lookups waiting for a free slot
+    private final Queue<Runnable> waiting = new ArrayDeque<>();
+    private int activeLookups = 0;
+
+    /**
+     * @param cache Where names found by the network lookup are stored
+     * @param identity Local sources asked before the network
+     * @param fetcher Performs the network lookup; completes with the UUID itself if the name is unknown
+     */
+    public UsernameResolver(Logger logger, PlayerDataCache cache, IdentityResolver identity,
+                            Function<String, CompletableFuture<String>> fetcher) {
+        this.logger = logger;
+        this.cache = cache;
+        this.identity = identity;
+        this.fetcher = fetcher;
+    }
+
+    /**
+     * Resolve a single UUID to a username
+     * @return Future completing with the username, or the UUID itself if it could not be resolved
+     */
+    public CompletableFuture<String> resolve(String uuid) {
+        String localName = identity.findUsername(uuid);
+        if (localName != null) {
+            return CompletableFuture.completedFuture(localName);
+        }
+
+        CompletableFuture<String> lookup = submit(() -> fetcher.apply(uuid));
+        return FutureCancellation.forward(lookup.thenApply(name -> {
+            // The fetcher echoes the UUID back when Mojang doesn't know the player
+            if (name != null && !name.equalsIgnoreCase(uuid)) {
+                cache.cacheUsername(uuid, name);
+                return name;
+            }
+            return uuid;
+        }), lookup);
+    }
+
+    /**
+     * Resolve many UUIDs at once
+     * The result completes when the slowest lookup does; failed lookups map to the UUID itself
+     * @return Future completing with a UUID -> username map in the order the UUIDs were given; cancelling it cancels every lookup
+     */
+    public CompletableFuture<Map<String, String>> resolveAll(Collection<String> uuids) {
+        List<String> unique = List.copyOf(new LinkedHashSet<>(uuids));
+        Map<String, CompletableFuture<String>> started = new LinkedHashMap<>();
+        Map<String, CompletableFuture<String>> lookups = new LinkedHashMap<>();
+
+        for (String uuid : unique) {
+            CompletableFuture<String> lookup = resolve(uuid);
+            started.put(uuid, lookup);
+            lookups.put(uuid, lookup.exceptionally(e -> {
+                if (!(e instanceof CancellationException)) {
+                    logger.error("Error fetching username for UUID: {}", uuid, e);
+                }
+                return uuid;
+            }));
+        }
+
+        CompletableFuture<Map<String, String>> result = CompletableFuture.allOf(lookups.values().toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> {
+                    Map<String, String> names = new LinkedHashMap<>();
+                    lookups.forEach((uuid, future) -> names.put(uuid, future.join()));
+                    return names;
+                });
+        return FutureCancellation.forward(result, started.values().toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Resolve the usernames of tier list entries
+     * A locally known name wins, then the name the tier list carries; only players with neither are looked up
+     * @return Future completing with a UUID -> username map; cancelling it cancels every lookup
+     */
+    public CompletableFuture<Map<String, String>> resolveEntries(Collection<TierListEntry> entries) {
+        Map<String, String> known = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+
+        for (TierListEntry entry : entries) {
+            String uuid = entry.getUuid();
+            String name = identity.findUsername(uuid);
+            if (name == null) {
+                name = entry.getUsername();
+            }
+
+            if (name != null) {
+                known.put(uuid, name);
+            } else {
+                missing.add(uuid);
+            }
+        }
+
+        if (missing.isEmpty()) {
+            return CompletableFuture.completedFuture(known);
+        }
+
+        logger.debug("Looking up {} of {} tier list usernames", missing.size(), entries.size());
+        CompletableFuture<Map<String, String>> lookups = resolveAll(missing);
+        return FutureCancellation.forward(lookups.thenApply(names -> {
+            Map<String, String> result = new LinkedHashMap<>(known);
+            result.putAll(names);
+            return result;
+        }), lookups);
+    }
+
+    /**
+     * Run a lookup once fewer than MAX_CONCURRENT_LOOKUPS are in flight
+     */
+    private <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> lookup) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        Runnable start = () -> {
+            if (result.isDone()) {
+                // Cancelled while waiting for a slot
+                releaseSlot();
+                return;
+            }
+
+            CompletableFuture<T> running;
+            try {
+                running = lookup.get();
+            } catch (Throwable t) {
+                running = CompletableFuture.failedFuture(t);
+            }
+
+            FutureCancellation.forward(result, running);
+            running.whenComplete((value, error) -> {
+                releaseSlot();
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            });
+        };
+
+        boolean startNow;
+        synchronized (waiting) {
+            startNow = activeLookups < MAX_CONCURRENT_LOOKUPS;
+            if (startNow) {
+                activeLookups++;
+            } else {
+                waiting.add(start);
+            }
+        }
+
+        if (startNow) {
+            start.run();
+        }
+        return result;
+    }
+
+    private void releaseSlot() {
+        Runnable next;
+        synchronized (waiting) {
+            next = waiting.poll();
+            if (next == null) {
+                activeLookups--;
+            }
+        }
+
+        // Hand the slot straight to the next waiting lookup
+        if (next != null) {
+            next.run();
+        }
+    }
+}
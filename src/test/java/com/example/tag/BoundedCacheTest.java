@@ -0,0 +1,163 @@
+package com.example.tag;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BoundedCacheTest {
+    private static BoundedCache<String, String> cacheOf(long maxWeight) {
+        return new BoundedCache<>(maxWeight, String::length);
+    }
+
+    @Test
+    void staysWithinWeight() {
+        BoundedCache<String, String> cache = cacheOf(3);
+        for (String key : new String[] {"a", "b", "c", "d", "e"}) {
+            cache.put(key, "x");
+        }
+
+        assertEquals(3, cache.size());
+        assertEquals(3, cache.getWeightedSize());
+        assertEquals(2, cache.getEvictionCount());
+    }
+
+    @Test
+    void rejectsValuesHeavierThanTheCache() {
+        BoundedCache<String, String> cache = cacheOf(3);
+        cache.put("big", "xxxx");
+
+        assertNull(cache.peek("big"));
+        assertEquals(0, cache.getWeightedSize());
+        assertEquals(1, cache.getRejectionCount());
+    }
+
+    @Test
+    void resetCountsKeepsEntries() {
+        BoundedCache<String, String> cache = cacheOf(3);
+        for (String key : new String[] {"a", "b", "c", "d"}) {
+            cache.put(key, "x");
+        }
+        cache.put("big", "xxxx");
+        cache.resetCounts();
+
+        assertEquals(0, cache.getEvictionCount());
+        assertEquals(0, cache.getRejectionCount());
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    void clockGivesRecentlyReadEntriesASecondChance() {
+        BoundedCache<String, String> cache = cacheOf(3);
+        cache.put("a", "x");
+        cache.put("b", "x");
+        cache.put("c", "x");
+        cache.get("a");
+
+        cache.put("d", "x");
+
+        // The hand skipped "a" because it was read, and evicted "b", the next oldest
+        assertNotNull(cache.peek("a"));
+        assertNull(cache.peek("b"));
+        assertNotNull(cache.peek("c"));
+        assertNotNull(cache.peek("d"));
+    }
+
+    @Test
+    void tinyLfuRejectsNewcomersRarerThanTheVictim() {
+        BoundedCache<String, String> cache = cacheOf(3);
+        for (String key : new String[] {"a", "b", "c"}) {
+            cache.put(key, "x");
+            for (int i = 0; i < 5; i++) {
+                cache.get(key);
+            }
+        }
+
+        cache.put("one-off", "x");
+
+        assertNull(cache.peek("one-off"));
+        assertEquals(3, cache.size());
+        assertEquals(0, cache.getEvictionCount());
+        assertEquals(1, cache.getRejectionCount());
+    }
+
+    @Test
+    void tinyLfuAdmitsNewcomersAskedForMoreOften() {
+        BoundedCache<String, String> cache = cacheOf(3);
+        for (String key : new String[] {"a", "b", "c"}) {
+            cache.put(key, "x");
+            cache.get(key);
+        }
+
+        // Misses count too: the key was wanted often before it could be cached
+        for (int i = 0; i < 10; i++) {
+            cache.get("popular");
+        }
+        cache.put("popular", "x");
+
+        assertNotNull(cache.peek("popular"));
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    void peekDoesNotCountAsAnAccess() {
+        BoundedCache<String, String> cache = cacheOf(3);
+        cache.put("a", "x");
+        cache.put("b", "x");
+        cache.put("c", "x");
+        for (int i = 0; i < 5; i++) {
+            cache.peek("a");
+        }
+
+        // Neither a second chance nor frequency for "a", so a newcomer asked for once replaces it
+        cache.get("d");
+        cache.put("d", "x");
+
+        assertNull(cache.peek("a"));
+        assertEquals("x", cache.peek("d"));
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    void replacingAnEntryKeepsTheWeightRight() {
+        BoundedCache<String, String> cache = cacheOf(10);
+        cache.put("a", "xx");
+        cache.put("a", "xxxx");
+
+        assertEquals("xxxx", cache.peek("a"));
+        assertEquals(4, cache.getWeightedSize());
+    }
+
+    @Test
+    void removeOnlyMatchingValue() {
+        BoundedCache<String, String> cache = cacheOf(10);
+        cache.put("a", "x");
+
+        cache.remove("a", "other");
+        assertNotNull(cache.peek("a"));
+
+        cache.remove("a", cache.peek("a"));
+        assertNull(cache.peek("a"));
+        assertEquals(0, cache.getWeightedSize());
+    }
+
+    @Test
+    void sweepRemovesDeadEntriesInBatches() {
+        BoundedCache<String, String> cache = cacheOf(100);
+        for (int i = 0; i < 10; i++) {
+            cache.put("dead-" + i, "d");
+            cache.put("live-" + i, "l");
+        }
+
+        int removed = 0;
+        for (int pass = 0; pass < 10; pass++) {
+            removed += cache.sweep("d"::equals, 5);
+        }
+
+        assertEquals(10, removed);
+        assertEquals(10, cache.size());
+        assertEquals(10, cache.getExpiredCount());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,89 @@
+package com.example.tag;
+
+import com.google.gson.JsonPrimitive;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DiskCacheTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void loadsWhatWasSaved() {
+        DiskCache cache = newCache();
+        cache.save("players", "a", record("first"));
+
+        assertEquals("first", cache.loadAsync("players", "a").join().getData().getAsString());
+    }
+
+    @Test
+    void writesToOneKeyLandInOrder() {
+        DiskCache cache = newCache();
+        for (int i = 0; i < 20; i++) {
+            cache.save("players", "a", record("v" + i));
+        }
+        cache.remove("players", "a");
+        cache.save("players", "a", record("last"));
+
+        assertEquals("last", cache.loadAsync("players", "a").join().getData().getAsString());
+    }
+
+    @Test
+    void flushFinishesQueuedWrites() {
+        DiskCache cache = newCache();
+        for (int i = 0; i < 20; i++) {
+            cache.save("players", "p" + i, record("v" + i));
+        }
+
+        cache.flush();
+        assertEquals(20, countFiles());
+    }
+
+    @Test
+    void clearWinsOverWritesAlreadyQueued() {
+        DiskCache cache = newCache();
+        for (int i = 0; i < 20; i++) {
+            cache.save("players", "p" + i, record("v" + i));
+        }
+
+        cache.clear();
+        cache.flush();
+        assertEquals(0, countFiles());
+        assertNull(cache.loadAsync("players", "p0").join());
+    }
+
+    @Test
+    void discardsExpiredRecords() {
+        DiskCache cache = newCache();
+        cache.save("players", "a", new DiskCache.Record(new JsonPrimitive("old"), 0, 1, null));
+
+        assertNull(cache.loadAsync("players", "a").join());
+    }
+
+    private DiskCache newCache() {
+        return new DiskCache(directory, LoggerFactory.getLogger(DiskCacheTest.class));
+    }
+
+    private static DiskCache.Record record(String value) {
+        long expiry = System.currentTimeMillis() + 60_000;
+        return new DiskCache.Record(new JsonPrimitive(value), expiry, expiry, null);
+    }
+
+    private long countFiles() {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).count();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
\ No newline at end of file
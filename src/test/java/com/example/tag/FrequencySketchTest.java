@@ -0,0 +1,77 @@
+package com.example.tag;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FrequencySketchTest {
+    @Test
+    void countsIncrements() {
+        FrequencySketch sketch = new FrequencySketch(1024);
+        for (int i = 0; i < 5; i++) {
+            sketch.increment("alice");
+        }
+
+        assertEquals(5, sketch.frequency("alice"));
+        assertEquals(0, sketch.frequency("bob"));
+    }
+
+    @Test
+    void countersSaturateAtFifteen() {
+        FrequencySketch sketch = new FrequencySketch(1024);
+        for (int i = 0; i < 100; i++) {
+            sketch.increment("alice");
+        }
+
+        assertEquals(15, sketch.frequency("alice"));
+    }
+
+    @Test
+    void agingHalvesCounts() {
+        FrequencySketch sketch = new FrequencySketch(16);
+        for (int i = 0; i < 15; i++) {
+            sketch.increment("hot");
+        }
+
+        // Counters only ever go down when the sketch ages, so any drop proves a reset happened
+        int before = sketch.frequency("hot");
+        boolean aged = false;
+        for (int i = 0; i < 10_000 && !aged; i++) {
+            sketch.increment("filler-" + i);
+            int now = sketch.frequency("hot");
+            aged = now < before;
+            before = now;
+        }
+
+        assertTrue(aged, "counts were never halved");
+    }
+
+    @Test
+    void clearForgetsEverything() {
+        FrequencySketch sketch = new FrequencySketch(1024);
+        sketch.increment("alice");
+        sketch.clear();
+
+        assertEquals(0, sketch.frequency("alice"));
+    }
+
+    @Test
+    void concurrentIncrementsAreNotLost() throws InterruptedException {
+        FrequencySketch sketch = new FrequencySketch(1024);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 3; i++) {
+                    sketch.increment("shared");
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(12, sketch.frequency("shared"));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.example.tag;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+    @Test
+    void allowsABurstUpToCapacity() {
+        RateLimiter limiter = new RateLimiter(3, 1);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.reserve(0));
+        }
+    }
+
+    @Test
+    void queuesRequestsBeyondTheBurst() {
+        RateLimiter limiter = new RateLimiter(1, 1);
+        limiter.reserve(0);
+
+        long first = limiter.reserve(5000);
+        long second = limiter.reserve(5000);
+
+        assertTrue(first > 0 && first <= 1000, "first wait was " + first);
+        assertTrue(second > first, "waits should grow while callers are queued");
+    }
+
+    @Test
+    void refusesWaitsThatAreTooLongWithoutReserving() {
+        RateLimiter limiter = new RateLimiter(1, 1);
+        limiter.reserve(0);
+
+        assertEquals(-1, limiter.reserve(10));
+        assertTrue(limiter.getAvailableTokens() > -1, "a refused request must not hold a token");
+    }
+
+    @Test
+    void releasedTokensShortenTheQueue() {
+        RateLimiter limiter = new RateLimiter(1, 1);
+        limiter.reserve(0);
+        limiter.reserve(5000);
+
+        limiter.release();
+        long wait = limiter.reserve(5000);
+        assertTrue(wait <= 1000, "wait after a release was " + wait);
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(1, 50);
+        limiter.reserve(0);
+
+        Thread.sleep(100);
+        assertEquals(0, limiter.reserve(0));
+    }
+}
\ No newline at end of file
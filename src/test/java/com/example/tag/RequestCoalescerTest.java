@@ -0,0 +1,104 @@
+package com.example.tag;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestCoalescerTest {
+    @Test
+    void concurrentCallersShareOneRequest() {
+        RequestCoalescer coalescer = new RequestCoalescer();
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<String> source = new CompletableFuture<>();
+
+        CompletableFuture<String> first = coalescer.coalesce("player:a", () -> {
+            loads.incrementAndGet();
+            return source;
+        });
+        CompletableFuture<String> second = coalescer.coalesce("player:a", () -> {
+            loads.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+
+        source.complete("profile");
+        assertEquals(1, loads.get());
+        assertEquals("profile", first.join());
+        assertEquals("profile", second.join());
+        assertEquals(0, coalescer.size());
+    }
+
+    @Test
+    void callersGetTheirOwnFuture() {
+        RequestCoalescer coalescer = new RequestCoalescer();
+        CompletableFuture<String> source = new CompletableFuture<>();
+
+        CompletableFuture<String> first = coalescer.coalesce("player:a", () -> source);
+        CompletableFuture<String> second = coalescer.coalesce("player:a", () -> source);
+
+        assertNotSame(first, second);
+        first.complete("forged");
+        source.complete("profile");
+        assertEquals("profile", second.join());
+    }
+
+    @Test
+    void oneCallerCancellingLeavesTheRequestRunning() {
+        RequestCoalescer coalescer = new RequestCoalescer();
+        CompletableFuture<String> source = new CompletableFuture<>();
+
+        CompletableFuture<String> first = coalescer.coalesce("player:a", () -> source);
+        CompletableFuture<String> second = coalescer.coalesce("player:a", () -> source);
+        first.cancel(true);
+
+        assertFalse(source.isCancelled());
+        source.complete("profile");
+        assertEquals("profile", second.join());
+    }
+
+    @Test
+    void lastCallerCancellingCancelsTheRequest() {
+        RequestCoalescer coalescer = new RequestCoalescer();
+        CompletableFuture<String> source = new CompletableFuture<>();
+
+        CompletableFuture<String> first = coalescer.coalesce("player:a", () -> source);
+        CompletableFuture<String> second = coalescer.coalesce("player:a", () -> source);
+        first.cancel(true);
+        second.cancel(true);
+
+        assertTrue(source.isCancelled());
+        assertEquals(0, coalescer.size());
+    }
+
+    @Test
+    void aCallerAfterAbandonmentStartsAFreshRequest() {
+        RequestCoalescer coalescer = new RequestCoalescer();
+        CompletableFuture<String> abandonedSource = new CompletableFuture<>();
+        CompletableFuture<String> freshSource = new CompletableFuture<>();
+
+        coalescer.coalesce("player:a", () -> abandonedSource).cancel(true);
+        CompletableFuture<String> next = coalescer.coalesce("player:a", () -> freshSource);
+
+        freshSource.complete("profile");
+        assertEquals("profile", next.join());
+    }
+
+    @Test
+    void failuresReachEveryCaller() {
+        RequestCoalescer coalescer = new RequestCoalescer();
+        CompletableFuture<String> source = new CompletableFuture<>();
+
+        CompletableFuture<String> first = coalescer.coalesce("player:a", () -> source);
+        CompletableFuture<String> second = coalescer.coalesce("player:a", () -> source);
+        source.completeExceptionally(new IllegalStateException("boom"));
+
+        assertTrue(first.isCompletedExceptionally());
+        assertTrue(second.isCompletedExceptionally());
+        assertEquals(0, coalescer.size());
+    }
+}
\ No newline at end of file
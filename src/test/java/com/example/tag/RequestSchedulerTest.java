@@ -0,0 +1,144 @@
+package com.example.tag;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestSchedulerTest {
+    /**
+     * Requests that only finish when the test completes them, recording the order they started in
+     */
+    private static class ManualRequests {
+        private final List<String> started = new ArrayList<>();
+        private final List<CompletableFuture<String>> running = new ArrayList<>();
+
+        private CompletableFuture<String> submit(RequestScheduler scheduler, String key, RequestPriority priority) {
+            return scheduler.submit(key, priority, () -> {
+                CompletableFuture<String> request = new CompletableFuture<>();
+                started.add(key);
+                running.add(request);
+                return request;
+            });
+        }
+
+        private void finish(int index) {
+            running.get(index).complete(started.get(index));
+        }
+    }
+
+    @Test
+    void limitsConcurrentRequests() {
+        RequestScheduler scheduler = new RequestScheduler(2, 0);
+        ManualRequests requests = new ManualRequests();
+
+        requests.submit(scheduler, "a", RequestPriority.INTERACTIVE);
+        requests.submit(scheduler, "b", RequestPriority.INTERACTIVE);
+        CompletableFuture<String> third = requests.submit(scheduler, "c", RequestPriority.INTERACTIVE);
+        assertEquals(List.of("a", "b"), requests.started);
+
+        requests.finish(0);
+        assertEquals(List.of("a", "b", "c"), requests.started);
+
+        requests.finish(2);
+        assertEquals("c", third.join());
+    }
+
+    @Test
+    void reservedSlotsAreOnlyForInteractiveRequests() {
+        RequestScheduler scheduler = new RequestScheduler(2, 1);
+        ManualRequests requests = new ManualRequests();
+
+        requests.submit(scheduler, "bulk-1", RequestPriority.BACKGROUND);
+        requests.submit(scheduler, "bulk-2", RequestPriority.BACKGROUND);
+        requests.submit(scheduler, "search", RequestPriority.INTERACTIVE);
+
+        assertEquals(List.of("bulk-1", "search"), requests.started);
+    }
+
+    @Test
+    void urgentRequestsJumpTheQueue() {
+        RequestScheduler scheduler = new RequestScheduler(1, 0);
+        ManualRequests requests = new ManualRequests();
+
+        requests.submit(scheduler, "busy", RequestPriority.INTERACTIVE);
+        requests.submit(scheduler, "prefetch", RequestPriority.BACKGROUND);
+        requests.submit(scheduler, "search", RequestPriority.INTERACTIVE);
+
+        requests.finish(0);
+        assertEquals(List.of("busy", "search"), requests.started);
+    }
+
+    @Test
+    void waitingRequestsAgeIntoAHigherClass() throws InterruptedException {
+        RequestScheduler scheduler = new RequestScheduler(1, 0);
+        ManualRequests requests = new ManualRequests();
+
+        requests.submit(scheduler, "busy", RequestPriority.INTERACTIVE);
+        requests.submit(scheduler, "visible", RequestPriority.VISIBLE);
+
+        // One aging step is two seconds; after waiting longer, the visible request ranks above a fresh interactive one
+        Thread.sleep(2200);
+        requests.submit(scheduler, "search", RequestPriority.INTERACTIVE);
+
+        requests.finish(0);
+        assertEquals(List.of("busy", "visible"), requests.started);
+    }
+
+    @Test
+    void promoteMovesAQueuedRequestUp() {
+        RequestScheduler scheduler = new RequestScheduler(1, 0);
+        ManualRequests requests = new ManualRequests();
+
+        requests.submit(scheduler, "busy", RequestPriority.INTERACTIVE);
+        requests.submit(scheduler, "search", RequestPriority.VISIBLE);
+        requests.submit(scheduler, "prefetch", RequestPriority.BACKGROUND);
+        scheduler.promote("prefetch", RequestPriority.INTERACTIVE);
+
+        requests.finish(0);
+        assertEquals(List.of("busy", "prefetch"), requests.started);
+    }
+
+    @Test
+    void cancellingAQueuedRequestMeansItNeverStarts() {
+        RequestScheduler scheduler = new RequestScheduler(1, 0);
+        ManualRequests requests = new ManualRequests();
+
+        requests.submit(scheduler, "busy", RequestPriority.INTERACTIVE);
+        CompletableFuture<String> queued = requests.submit(scheduler, "queued", RequestPriority.INTERACTIVE);
+        scheduler.cancel("queued");
+
+        requests.finish(0);
+        assertTrue(queued.isCancelled());
+        assertEquals(List.of("busy"), requests.started);
+    }
+
+    @Test
+    void cancellingARunningRequestAbortsItAndFreesTheSlot() {
+        RequestScheduler scheduler = new RequestScheduler(1, 0);
+        ManualRequests requests = new ManualRequests();
+
+        CompletableFuture<String> running = requests.submit(scheduler, "running", RequestPriority.INTERACTIVE);
+        requests.submit(scheduler, "next", RequestPriority.INTERACTIVE);
+        running.cancel(true);
+
+        assertTrue(requests.running.get(0).isCancelled());
+        assertEquals(List.of("running", "next"), requests.started);
+    }
+
+    @Test
+    void failuresArePassedOn() {
+        RequestScheduler scheduler = new RequestScheduler(1, 0);
+        CompletableFuture<String> result = scheduler.submit("broken", RequestPriority.INTERACTIVE, () -> {
+            throw new IllegalStateException("boom");
+        });
+
+        assertTrue(result.isCompletedExceptionally());
+        assertFalse(result.isCancelled());
+    }
+}
\ No newline at end of file
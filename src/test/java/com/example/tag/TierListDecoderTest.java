@@ -0,0 +1,177 @@
+package com.example.tag;
+
+import org.junit.jupiter.api.Test;
+
+import javax.net.ssl.SSLSession;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TierListDecoderTest {
+    private static final String TIER_LIST = """
+            [
+              {"minecraftUUID": "uuid-1", "username": "Alice",
+               "crystal": [{"tier": "HT1", "lastupdate": 1700000000}, {"tier": "LT2", "lastupdate": 1600000000}],
+               "sword": [{"tier": "LT3", "lastupdate": 1700000001}],
+               "profile": {"bio": "skipped", "tags": [1, 2, 3]}},
+              {"minecraftUUID": "uuid-2", "username": null,
+               "crystal": [{"tier": "LT1", "lastupdate": "1700000002"}]},
+              {"minecraftUUID": "uuid-3", "username": "Carol", "crystal": []},
+              {"minecraftUUID": "uuid-4", "username": "Dave", "sword": [{"tier": "HT2"}]}
+            ]
+            """;
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] gzip(String json) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(json.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test
+    void keepsOnlyPlayersRankedInTheMode() throws IOException {
+        List<TierListEntry> entries = TierListDecoder.decode(stream(TIER_LIST), "crystal");
+
+        assertEquals(2, entries.size());
+
+        TierListEntry alice = entries.get(0);
+        assertEquals("uuid-1", alice.getUuid());
+        assertEquals("Alice", alice.getUsername());
+        assertEquals("HT1", alice.getTier());
+        assertEquals("1700000000", alice.getLastUpdate());
+
+        TierListEntry unnamed = entries.get(1);
+        assertEquals("uuid-2", unnamed.getUuid());
+        assertNull(unnamed.getUsername());
+        assertEquals("LT1", unnamed.getTier());
+    }
+
+    @Test
+    void decodesAnotherMode() throws IOException {
+        List<TierListEntry> entries = TierListDecoder.decode(stream(TIER_LIST), "sword");
+
+        assertEquals(List.of("uuid-1", "uuid-4"), entries.stream().map(TierListEntry::getUuid).toList());
+        assertNull(entries.get(1).getLastUpdate());
+    }
+
+    @Test
+    void emptyListDecodesToNothing() throws IOException {
+        assertTrue(TierListDecoder.decode(stream("[]"), "crystal").isEmpty());
+    }
+
+    @Test
+    void decodesGzippedBodies() throws IOException {
+        HttpResponse<InputStream> response = new StubResponse(gzip(TIER_LIST), Map.of("Content-Encoding", List.of("gzip")));
+
+        List<TierListEntry> entries = TierListDecoder.decode(TierListDecoder.openBody(response), "crystal");
+
+        assertEquals(2, entries.size());
+        assertEquals("HT1", entries.get(0).getTier());
+    }
+
+    @Test
+    void passesPlainBodiesThrough() throws IOException {
+        HttpResponse<InputStream> response = new StubResponse(TIER_LIST.getBytes(StandardCharsets.UTF_8), Map.of());
+
+        assertEquals(2, TierListDecoder.decode(TierListDecoder.openBody(response), "crystal").size());
+    }
+
+    @Test
+    void truncatedBodyFails() {
+        String truncated = TIER_LIST.substring(0, TIER_LIST.length() / 2);
+
+        assertThrows(IOException.class, () -> TierListDecoder.decode(stream(truncated), "crystal"));
+    }
+
+    @Test
+    void malformedJsonFails() {
+        assertThrows(IOException.class, () -> TierListDecoder.decode(stream("[{\"minecraftUUID\": }]"), "crystal"));
+    }
+
+    @Test
+    void corruptGzipFails() {
+        HttpResponse<InputStream> response = new StubResponse("not gzip".getBytes(StandardCharsets.UTF_8),
+                Map.of("Content-Encoding", List.of("gzip")));
+
+        assertThrows(IOException.class, () -> TierListDecoder.decode(TierListDecoder.openBody(response), "crystal"));
+    }
+
+    @Test
+    void unexpectedShapeFails() {
+        assertThrows(IllegalStateException.class, () -> TierListDecoder.decode(stream("{\"error\": \"nope\"}"), "crystal"));
+    }
+
+    /**
+     * Just enough of a response for openBody
+     */
+    private static class StubResponse implements HttpResponse<InputStream> {
+        private final byte[] body;
+        private final HttpHeaders headers;
+
+        private StubResponse(byte[] body, Map<String, List<String>> headers) {
+            this.body = body;
+            this.headers = HttpHeaders.of(headers, (name, value) -> true);
+        }
+
+        @Override
+        public int statusCode() {
+            return 200;
+        }
+
+        @Override
+        public HttpRequest request() {
+            return HttpRequest.newBuilder(uri()).build();
+        }
+
+        @Override
+        public Optional<HttpResponse<InputStream>> previousResponse() {
+            return Optional.empty();
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return headers;
+        }
+
+        @Override
+        public InputStream body() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public Optional<SSLSession> sslSession() {
+            return Optional.empty();
+        }
+
+        @Override
+        public URI uri() {
+            return URI.create("https://israeltiers.com/api/tierlist");
+        }
+
+        @Override
+        public HttpClient.Version version() {
+            return HttpClient.Version.HTTP_2;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.example.tag;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TierListDiffTest {
+    private static final Map<String, Integer> POINTS = Map.of("HT1", 60, "LT1", 44, "HT2", 28, "LT2", 16);
+    private static final ToIntFunction<String> POINTS_FOR_TIER = tier -> POINTS.getOrDefault(tier, 0);
+
+    private static TierListEntry entry(String uuid, String tier) {
+        return new TierListEntry(uuid, null, tier, "0");
+    }
+
+    @Test
+    void identicalListsHaveNoChanges() {
+        List<TierListEntry> list = List.of(entry("a", "HT1"), entry("b", "LT2"));
+
+        assertTrue(TierListDiff.compute(list, List.copyOf(list), POINTS_FOR_TIER).isEmpty());
+    }
+
+    @Test
+    void reportsMovesUpAndDown() {
+        List<TierListEntry> previous = List.of(entry("a", "LT1"), entry("b", "HT2"));
+        List<TierListEntry> current = List.of(entry("a", "HT1"), entry("b", "LT2"));
+
+        List<TierChangeEvent> changes = TierListDiff.compute(previous, current, POINTS_FOR_TIER);
+
+        assertEquals(2, changes.size());
+        assertEquals(TierChangeEvent.Type.TIER_UP, changes.get(0).getType());
+        assertEquals("LT1", changes.get(0).getPrevious().getTier());
+        assertEquals("HT1", changes.get(0).getCurrent().getTier());
+        assertEquals(TierChangeEvent.Type.TIER_DOWN, changes.get(1).getType());
+    }
+
+    @Test
+    void reportsAdditionsThenRemovals() {
+        List<TierListEntry> previous = List.of(entry("a", "HT1"), entry("gone", "LT2"));
+        List<TierListEntry> current = List.of(entry("new", "HT2"), entry("a", "HT1"));
+
+        List<TierChangeEvent> changes = TierListDiff.compute(previous, current, POINTS_FOR_TIER);
+
+        assertEquals(2, changes.size());
+        assertEquals(TierChangeEvent.Type.ADDED, changes.get(0).getType());
+        assertEquals("new", changes.get(0).getUuid());
+        assertNull(changes.get(0).getPrevious());
+        assertEquals(TierChangeEvent.Type.REMOVED, changes.get(1).getType());
+        assertEquals("gone", changes.get(1).getUuid());
+        assertNull(changes.get(1).getCurrent());
+    }
+
+    @Test
+    void matchesUuidsIgnoringCase() {
+        List<TierListEntry> previous = List.of(entry("ABC-123", "HT1"));
+        List<TierListEntry> current = List.of(entry("abc-123", "HT1"));
+
+        assertTrue(TierListDiff.compute(previous, current, POINTS_FOR_TIER).isEmpty());
+    }
+
+    @Test
+    void onlyTierChangesCount() {
+        List<TierListEntry> previous = List.of(new TierListEntry("a", "OldName", "HT1", "100"));
+        List<TierListEntry> current = List.of(new TierListEntry("a", "NewName", "HT1", "200"));
+
+        assertTrue(TierListDiff.compute(previous, current, POINTS_FOR_TIER).isEmpty());
+    }
+}
\ No newline at end of file